@@ -0,0 +1,99 @@
+package ru.practicum.shareit.benchmarks;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The executable jar of the server or the gateway in its own JVM on a free port, for benchmarks
+ * that measure a whole app: the two apps cannot share one classpath. Output goes to
+ * {@code target/<name>.log} of the working directory.
+ */
+final class AppJar implements AutoCloseable {
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(3);
+
+    private final String name;
+    private final Process process;
+    private final Path logFile;
+    private final int port;
+
+    private AppJar(String name, Process process, Path logFile, int port) {
+        this.name = name;
+        this.process = process;
+        this.logFile = logFile;
+        this.port = port;
+    }
+
+    static AppJar start(String name, String jar, List<String> args) throws IOException, InterruptedException {
+        Path jarFile = Path.of(jar);
+        if (!Files.isRegularFile(jarFile)) {
+            throw new IllegalStateException(jarFile.toAbsolutePath() + " not found, run mvn package -DskipTests -Ptools first");
+        }
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-jar");
+        command.add(jarFile.toAbsolutePath().toString());
+        command.add("--server.port=" + port);
+        command.add("--logging.level.root=WARN");
+        command.addAll(args);
+        Path logFile = Files.createDirectories(Path.of("target")).resolve(name + ".log");
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(logFile.toFile())
+                .start();
+        AppJar app = new AppJar(name, process, logFile, port);
+        app.awaitHealthy();
+        return app;
+    }
+
+    URI getBaseUri() {
+        return URI.create("http://127.0.0.1:" + port);
+    }
+
+    private void awaitHealthy() throws InterruptedException {
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest health = HttpRequest.newBuilder(getBaseUri().resolve("/actuator/health"))
+                .timeout(Duration.ofSeconds(2))
+                .build();
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException(name + " exited with " + process.exitValue() + ", see " + logFile);
+            }
+            try {
+                if (client.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // not listening yet
+            }
+            Thread.sleep(500);
+        }
+        close();
+        throw new IllegalStateException(name + " did not start in " + STARTUP_TIMEOUT + ", see " + logFile);
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) {
+            process.destroyForcibly().waitFor();
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.practicum.shareit.booking.service.BookingServiceImp;
+import ru.practicum.shareit.exception.IllegalOperationException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code checkState} over request parameters of the given count, known states and unknown ones
+ * separately, since an unknown state costs an exception.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingServiceBenchmark {
+    @Param({"100", "10000"})
+    private int states;
+
+    private BookingServiceImp bookingService;
+    private List<String> knownStates;
+    private List<String> unknownStates;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        ru.practicum.shareit.booking.model.State[] values = ru.practicum.shareit.booking.model.State.values();
+        knownStates = new ArrayList<>(states);
+        unknownStates = new ArrayList<>(states);
+        for (int i = 0; i < states; i++) {
+            knownStates.add(values[random.nextInt(values.length)].name());
+            unknownStates.add("UNSUPPORTED_STATUS_" + i);
+        }
+        bookingService = new BookingServiceImp(null, null, null, null, null);
+    }
+
+    @Benchmark
+    public void checkKnownState(Blackhole blackhole) {
+        for (String state : knownStates) {
+            blackhole.consume(bookingService.checkState(state));
+        }
+    }
+
+    @Benchmark
+    public void checkUnknownState(Blackhole blackhole) {
+        for (String state : unknownStates) {
+            try {
+                blackhole.consume(bookingService.checkState(state));
+            } catch (IllegalOperationException e) {
+                blackhole.consume(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.benchmarks;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Sends the same request {@code concurrency} times at once and waits for all answers, so the
+ * app under test has that many requests in flight. One burst is one benchmark operation.
+ */
+final class HttpBurst implements AutoCloseable {
+    private final ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .executor(executor)
+            .build();
+    private final HttpRequest request;
+    private final int concurrency;
+
+    HttpBurst(HttpRequest request, int concurrency) {
+        this.request = request;
+        this.concurrency = concurrency;
+    }
+
+    int send() {
+        List<CompletableFuture<HttpResponse<Void>>> responses = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding()));
+        }
+        int ok = 0;
+        for (CompletableFuture<HttpResponse<Void>> response : responses) {
+            if (response.join().statusCode() == 200) {
+                ok++;
+            }
+        }
+        if (ok != concurrency) {
+            throw new IllegalStateException((concurrency - ok) + " of " + concurrency + " requests failed");
+        }
+        return ok;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.booking.dto.BookingDtoShort;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.dataset.DatasetSpec;
+import ru.practicum.shareit.item.service.ItemServiceImp;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code getLastBooking} and {@code getNextBooking} over all bookings of one item.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ItemServiceBenchmark {
+    @Param({"10", "1000", "100000"})
+    private int bookings;
+
+    private ItemServiceImp itemService;
+    private List<Booking> bookingList;
+    private Long itemId;
+
+    @Setup
+    public void setUp() {
+        SyntheticData data = SyntheticData.generate(DatasetSpec.builder()
+                .users(100)
+                .requests(0)
+                .items(1)
+                .bookings(bookings)
+                .comments(0)
+                .build());
+        bookingList = data.getBookings();
+        itemId = data.getItems().get(0).getId();
+        itemService = new ItemServiceImp(null, null, null, null, null, null, null, null, null);
+    }
+
+    @Benchmark
+    public BookingDtoShort getLastBooking() {
+        return itemService.getLastBooking(bookingList, itemId);
+    }
+
+    @Benchmark
+    public BookingDtoShort getNextBooking() {
+        return itemService.getNextBooking(bookingList, itemId);
+    }
+}
@@ -0,0 +1,94 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.dataset.DatasetSpec;
+import ru.practicum.shareit.item.dto.ItemDtoWithBookingsAndComments;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemServiceImp;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code getAllItemsOfUser} on a page of one owner's items: grouping bookings and comments
+ * by item and mapping each item, with the repositories answering from memory. Each item has a
+ * history of bookings, of which the booking repository returns what its query would: the last and the next.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ItemsOfUserBenchmark {
+    private static final int BOOKINGS_PER_ITEM = 20;
+    private static final int COMMENTS_PER_ITEM = 3;
+
+    @Param({"10", "100", "1000"})
+    private int items;
+
+    private ItemServiceImp itemService;
+    private Long ownerId;
+
+    @Setup
+    public void setUp() {
+        DatasetSpec spec = DatasetSpec.builder()
+                .users(100)
+                .requests(0)
+                .items(items)
+                .bookings((long) items * BOOKINGS_PER_ITEM)
+                .comments(items * COMMENTS_PER_ITEM)
+                .build();
+        SyntheticData data = SyntheticData.generate(spec);
+        User owner = data.getUsers().get(0);
+        List<Item> itemList = data.getItems();
+        itemList.forEach(item -> item.setOwner(owner));
+        List<Booking> bookingList = lastAndNext(data.getBookings(), spec.getNow());
+        List<Comment> commentList = data.getComments();
+        ownerId = owner.getId();
+        itemService = new ItemServiceImp(
+                Stubs.of(ItemRepository.class, Map.of("findAllByOwnerId", itemList)),
+                null,
+                Stubs.of(BookingRepository.class, Map.of("findLastAndNextByItemIdIn", bookingList)),
+                Stubs.of(CommentRepository.class, Map.of("findAllByItemIdIn", commentList)),
+                null, null, null, null, null);
+    }
+
+    @Benchmark
+    public List<ItemDtoWithBookingsAndComments> getAllItemsOfUser() {
+        return itemService.getAllItemsOfUser(ownerId, 0, items);
+    }
+
+    // what findLastAndNextByItemIdIn returns for the history: per item, the not rejected booking
+    // that started last before now and the one that starts first after it
+    private static List<Booking> lastAndNext(List<Booking> bookings, LocalDateTime now) {
+        Map<Long, Booking> last = new HashMap<>();
+        Map<Long, Booking> next = new HashMap<>();
+        for (Booking booking : bookings) {
+            if (booking.getStatus() == Status.REJECTED || booking.getStart().isEqual(now)) {
+                continue;
+            }
+            if (booking.getStart().isBefore(now)) {
+                last.merge(booking.getItem().getId(), booking,
+                        (a, b) -> a.getStart().isAfter(b.getStart()) ? a : b);
+            } else {
+                next.merge(booking.getItem().getId(), booking,
+                        (a, b) -> a.getStart().isBefore(b.getStart()) ? a : b);
+            }
+        }
+        List<Booking> result = new ArrayList<>(last.values());
+        result.addAll(next.values());
+        return result;
+    }
+}
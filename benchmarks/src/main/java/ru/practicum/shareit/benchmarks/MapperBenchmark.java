@@ -0,0 +1,67 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.practicum.shareit.booking.dto.BookingDtoShort;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.dataset.DatasetSpec;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.mapper.CommentMapper;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Entity to DTO mapping over a list of the given size, as done for one response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+    @Param({"10", "1000", "100000"})
+    private int size;
+
+    private List<Booking> bookingList;
+    private List<Item> itemList;
+    private List<CommentDto> comments;
+    private BookingDtoShort lastBooking;
+    private BookingDtoShort nextBooking;
+
+    @Setup
+    public void setUp() {
+        SyntheticData data = SyntheticData.generate(DatasetSpec.builder()
+                .users(100)
+                .items(size)
+                .bookings(size)
+                .comments(3)
+                .build());
+        itemList = data.getItems();
+        bookingList = data.getBookings();
+        comments = data.getComments().stream()
+                .map(CommentMapper::makeToDto)
+                .collect(Collectors.toList());
+        lastBooking = BookingMapper.makeToDtoShort(bookingList.get(0));
+        nextBooking = BookingMapper.makeToDtoShort(bookingList.get(bookingList.size() - 1));
+    }
+
+    @Benchmark
+    public void bookingMakeToDto(Blackhole blackhole) {
+        for (Booking booking : bookingList) {
+            blackhole.consume(BookingMapper.makeToDto(booking));
+        }
+    }
+
+    @Benchmark
+    public void itemMakeToItemDtoWithBookingsAndComments(Blackhole blackhole) {
+        for (Item item : itemList) {
+            blackhole.consume(ItemMapper.makeToItemDtoWithBookingsAndComments(item, comments, lastBooking, nextBooking));
+        }
+    }
+}
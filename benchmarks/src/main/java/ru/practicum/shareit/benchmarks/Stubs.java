@@ -0,0 +1,32 @@
+package ru.practicum.shareit.benchmarks;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+
+/**
+ * Repository stand-ins answering named methods with canned results, so service code runs
+ * without a database or a mocking framework in the measured path.
+ */
+public final class Stubs {
+
+    private Stubs() {
+    }
+
+    public static <T> T of(Class<T> type, Map<String, Object> results) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return type.getSimpleName() + " stub";
+                default:
+                    if (!results.containsKey(method.getName())) {
+                        throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+                    }
+                    return results.get(method.getName());
+            }
+        }));
+    }
+}
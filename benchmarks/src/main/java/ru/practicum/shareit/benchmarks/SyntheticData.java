@@ -0,0 +1,109 @@
+package ru.practicum.shareit.benchmarks;
+
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.dataset.DatasetGenerator;
+import ru.practicum.shareit.dataset.DatasetSink;
+import ru.practicum.shareit.dataset.DatasetSpec;
+import ru.practicum.shareit.dataset.Table;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Detached entities for in-JVM benchmarks, built from the rows of {@link DatasetGenerator}
+ * so they have the same distributions as the data the load test runs against.
+ * Rows reference each other by id, and ids start at 1, so a reference is a list index.
+ */
+public final class SyntheticData implements DatasetSink {
+    private final List<User> users = new ArrayList<>();
+    private final List<ItemRequest> requests = new ArrayList<>();
+    private final List<Item> items = new ArrayList<>();
+    private final List<Booking> bookings = new ArrayList<>();
+    private final List<Comment> comments = new ArrayList<>();
+    private Table table;
+
+    private SyntheticData() {
+    }
+
+    public static SyntheticData generate(DatasetSpec spec) {
+        SyntheticData data = new SyntheticData();
+        try {
+            new DatasetGenerator(spec).generate(data);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+        return data;
+    }
+
+    public List<User> getUsers() {
+        return users;
+    }
+
+    public List<Item> getItems() {
+        return items;
+    }
+
+    public List<Booking> getBookings() {
+        return bookings;
+    }
+
+    public List<Comment> getComments() {
+        return comments;
+    }
+
+    @Override
+    public void begin(Table table) {
+        this.table = table;
+    }
+
+    @Override
+    public void row(Object... values) {
+        switch (table) {
+            case USERS:
+                users.add(new User((Long) values[0], (String) values[1], (String) values[2]));
+                break;
+            case REQUESTS:
+                requests.add(new ItemRequest((Long) values[0], (String) values[1], user(values[2]),
+                        (LocalDateTime) values[3]));
+                break;
+            case ITEMS:
+                items.add(new Item((Long) values[0], (String) values[1], (String) values[2], (Boolean) values[3],
+                        user(values[4]), values[5] == null ? null : requests.get(index(values[5]))));
+                break;
+            case BOOKINGS:
+                bookings.add(new Booking((Long) values[0], item(values[1]), user(values[2]),
+                        (LocalDateTime) values[3], (LocalDateTime) values[4], Status.valueOf((String) values[5])));
+                break;
+            case COMMENTS:
+                comments.add(new Comment((Long) values[0], (String) values[2], item(values[1]), user(values[3]),
+                        (LocalDateTime) values[4]));
+                break;
+            default:
+                throw new IllegalStateException("Unknown table " + table);
+        }
+    }
+
+    @Override
+    public void end(Table table) {
+        this.table = null;
+    }
+
+    private User user(Object id) {
+        return users.get(index(id));
+    }
+
+    private Item item(Object id) {
+        return items.get(index(id));
+    }
+
+    private static int index(Object id) {
+        return (int) ((Long) id - 1);
+    }
+}
@@ -0,0 +1,86 @@
+package ru.practicum.shareit.benchmarks;
+
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A burst of {@code concurrency} gateway requests with platform and with virtual request threads.
+ * The gateway runs from its executable jar against a server stub that answers after
+ * {@code delayMs}, the way a blocking JDBC call would. The virtual-thread runs need Java 21+;
+ * on older JVMs run with {@code -p virtualThreads=false}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class VirtualThreadsBenchmark {
+    private static final byte[] USER = "{\"id\":1,\"name\":\"User\",\"email\":\"user@mail.ru\"}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    @Param({"false", "true"})
+    private boolean virtualThreads;
+
+    @Param({"200", "1000"})
+    private int concurrency;
+
+    @Param("50")
+    private long delayMs;
+
+    @Param("gateway/target/shareit-gateway-0.0.1-SNAPSHOT.jar")
+    private String gatewayJar;
+
+    private ExecutorService stubExecutor;
+    private HttpServer stub;
+    private AppJar gateway;
+    private HttpBurst burst;
+
+    @Setup
+    public void setUp() throws Exception {
+        stubExecutor = Executors.newCachedThreadPool();
+        stub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), concurrency);
+        stub.createContext("/users", exchange -> {
+            try {
+                Thread.sleep(delayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, USER.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(USER);
+            }
+        });
+        stub.setExecutor(stubExecutor);
+        stub.start();
+        gateway = AppJar.start("gateway", gatewayJar, List.of(
+                "--shareit-server.url=http://127.0.0.1:" + stub.getAddress().getPort(),
+                "--shareit-server.http.max-total=" + concurrency,
+                "--shareit-server.http.max-per-route=" + concurrency,
+                "--shareit.virtual-threads.enabled=" + virtualThreads));
+        burst = new HttpBurst(HttpRequest.newBuilder(gateway.getBaseUri().resolve("/users/1")).GET().build(), concurrency);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        burst.close();
+        gateway.close();
+        stub.stop(0);
+        stubExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public int burst() {
+        return burst.send();
+    }
+}
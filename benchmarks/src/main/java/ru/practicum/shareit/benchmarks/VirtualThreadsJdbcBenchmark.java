@@ -0,0 +1,90 @@
+package ru.practicum.shareit.benchmarks;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import ru.practicum.shareit.dataset.DatasetLoader;
+import ru.practicum.shareit.dataset.DatasetSpec;
+
+import java.net.http.HttpRequest;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A burst of {@code concurrency} booking list requests to the server with platform and with virtual
+ * request threads, every request running JDBC statements against an embedded Postgres loaded with
+ * the synthetic dataset. With virtual threads requests queue for a Hikari connection instead of a
+ * Tomcat thread, so the pool size is a parameter. The virtual-thread runs need Java 21+;
+ * on older JVMs run with {@code -p virtualThreads=false}. They are only meaningful with pgjdbc 42.6
+ * or later; older drivers lock with {@code synchronized}, which pins the carrier thread for the whole query.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class VirtualThreadsJdbcBenchmark {
+    private static final long BOOKER_ID = 2;
+
+    @Param({"false", "true"})
+    private boolean virtualThreads;
+
+    @Param("200")
+    private int concurrency;
+
+    @Param({"10", "50"})
+    private int poolSize;
+
+    @Param("server/target/shareit-server-0.0.1-SNAPSHOT.jar")
+    private String serverJar;
+
+    private EmbeddedPostgres postgres;
+    private AppJar server;
+    private HttpBurst burst;
+
+    @Setup
+    public void setUp() throws Exception {
+        postgres = EmbeddedPostgres.start();
+        try (Connection connection = postgres.getPostgresDatabase().getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("schema.sql"));
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("schema-postgresql.sql"));
+            DatasetLoader.load(connection, DatasetSpec.builder()
+                    .users(1000)
+                    .requests(500)
+                    .items(5000)
+                    .bookings(100000)
+                    .comments(2000)
+                    .build());
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("analyze");
+            }
+        }
+        server = AppJar.start("server", serverJar, List.of(
+                "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                "--spring.datasource.username=postgres",
+                "--spring.datasource.password=",
+                "--spring.datasource.hikari.maximum-pool-size=" + poolSize,
+                "--spring.sql.init.mode=never",
+                "--shareit.virtual-threads.enabled=" + virtualThreads));
+        burst = new HttpBurst(HttpRequest.newBuilder(server.getBaseUri().resolve("/bookings?state=ALL&from=0&size=20"))
+                .header("X-Sharer-User-Id", String.valueOf(BOOKER_ID))
+                .GET()
+                .build(), concurrency);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        burst.close();
+        server.close();
+        postgres.close();
+    }
+
+    @Benchmark
+    public int burst() {
+        return burst.send();
+    }
+}
@@ -0,0 +1,224 @@
+package ru.practicum.shareit.dataset;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates a consistent dataset with ids 1..n per table:
+ * <ul>
+ * <li>a few owners hold most of the items, and one item in five answers a request;</li>
+ * <li>popular items get more bookings; bookings of one item never overlap and run from a year ago
+ * to three months ahead, lasting from an hour to a few weeks, two days typically;</li>
+ * <li>past bookings are mostly approved, future ones are often still waiting;</li>
+ * <li>comments are left by bookers of completed approved bookings, shortly after the end.</li>
+ * </ul>
+ * Rows are streamed to the sink, so only per-item state is kept in memory.
+ */
+public class DatasetGenerator {
+    public static final List<String> NOUNS = List.of("drill", "hammer", "saw", "ladder", "tent", "bicycle",
+            "kayak", "projector", "camera", "tripod", "mixer", "vacuum", "sander", "grinder", "wrench",
+            "generator", "heater", "grill", "scooter", "telescope");
+    public static final List<String> ADJECTIVES = List.of("cordless", "electric", "heavy", "compact", "folding",
+            "portable", "professional", "old", "new", "spare");
+    private static final List<String> FIRST_NAMES = List.of("Anna", "Boris", "Daria", "Egor", "Irina", "Ivan",
+            "Maria", "Mikhail", "Olga", "Pavel", "Sofia", "Timur");
+    private static final List<String> LAST_NAMES = List.of("Ivanov", "Petrov", "Smirnov", "Kuznetsov", "Popov",
+            "Sokolov", "Lebedev", "Kozlov", "Novikov", "Morozov");
+    private static final List<String> REVIEWS = List.of("worked fine", "as described", "a bit worn but ok",
+            "great, thanks", "picked up late", "would rent again");
+    private static final long HISTORY_SECONDS = 365L * 24 * 3600;
+    private static final long HORIZON_SECONDS = 90L * 24 * 3600;
+    private static final double TYPICAL_BOOKING_SECONDS = 2 * 24 * 3600;
+    private static final double BOOKING_SPREAD = 0.9;
+    private static final long MIN_BOOKING_SECONDS = 3600;
+    private static final double COMMENT_DELAY_SECONDS = 2 * 24 * 3600;
+
+    private final DatasetSpec spec;
+    private final Random random;
+    private final LocalDateTime now;
+    private long[] itemOwners;
+
+    public DatasetGenerator(DatasetSpec spec) {
+        this.spec = spec;
+        this.random = new Random(spec.getSeed());
+        this.now = spec.getNow().truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    public void generate(DatasetSink sink) throws SQLException {
+        users(sink);
+        requests(sink);
+        items(sink);
+        CompletedBookings completed = bookings(sink);
+        comments(sink, completed);
+    }
+
+    private void users(DatasetSink sink) throws SQLException {
+        sink.begin(Table.USERS);
+        for (long id = 1; id <= spec.getUsers(); id++) {
+            String first = pick(FIRST_NAMES);
+            String last = pick(LAST_NAMES);
+            sink.row(id, first + " " + last, first.toLowerCase() + "." + last.toLowerCase() + id + "@example.com");
+        }
+        sink.end(Table.USERS);
+    }
+
+    private void requests(DatasetSink sink) throws SQLException {
+        sink.begin(Table.REQUESTS);
+        for (long id = 1; id <= spec.getRequests(); id++) {
+            sink.row(id, "Looking for a " + pick(ADJECTIVES) + " " + pick(NOUNS), user(),
+                    now.minusSeconds(exponential(HISTORY_SECONDS / 4.0, HISTORY_SECONDS)));
+        }
+        sink.end(Table.REQUESTS);
+    }
+
+    private void items(DatasetSink sink) throws SQLException {
+        itemOwners = new long[spec.getItems()];
+        sink.begin(Table.ITEMS);
+        for (int i = 0; i < spec.getItems(); i++) {
+            long id = i + 1;
+            double skew = random.nextDouble();
+            itemOwners[i] = 1 + (long) (skew * skew * skew * spec.getUsers());
+            String noun = pick(NOUNS);
+            Long requestId = spec.getRequests() > 0 && random.nextInt(5) == 0 ? 1L + random.nextInt(spec.getRequests()) : null;
+            sink.row(id, pick(ADJECTIVES) + " " + noun,
+                    "A " + pick(ADJECTIVES) + " " + noun + " in good condition, item " + id,
+                    random.nextInt(10) > 0, itemOwners[i], requestId);
+        }
+        sink.end(Table.ITEMS);
+    }
+
+    /**
+     * Each item's timeline is cut into equal slots, one booking per slot, so bookings of an item
+     * never overlap whatever their length.
+     */
+    private CompletedBookings bookings(DatasetSink sink) throws SQLException {
+        long[] counts = bookingsPerItem();
+        CompletedBookings completed = new CompletedBookings(spec.getComments());
+        LocalDateTime from = now.minusSeconds(HISTORY_SECONDS);
+        long id = 1;
+        sink.begin(Table.BOOKINGS);
+        for (int i = 0; i < counts.length; i++) {
+            long itemId = i + 1;
+            double slot = (double) (HISTORY_SECONDS + HORIZON_SECONDS) / Math.max(1, counts[i]);
+            for (long k = 0; k < counts[i]; k++) {
+                long length = Math.max(1, Math.min((long) (slot * 0.9), bookingSeconds()));
+                long offset = (long) (slot * k) + (long) (random.nextDouble() * (slot - length));
+                LocalDateTime start = from.plusSeconds(offset);
+                LocalDateTime end = start.plusSeconds(length);
+                long booker = booker(itemOwners[i]);
+                String status = status(start, end);
+                sink.row(id++, itemId, booker, start, end, status);
+                if ("APPROVED".equals(status) && end.isBefore(now)) {
+                    completed.offer(itemId, booker, end, random);
+                }
+            }
+        }
+        sink.end(Table.BOOKINGS);
+        return completed;
+    }
+
+    private void comments(DatasetSink sink, CompletedBookings completed) throws SQLException {
+        sink.begin(Table.COMMENTS);
+        for (int i = 0; i < completed.size(); i++) {
+            LocalDateTime end = completed.ends[i];
+            long delay = exponential(COMMENT_DELAY_SECONDS, ChronoUnit.SECONDS.between(end, now));
+            sink.row(i + 1L, completed.itemIds[i], "Rented the " + pick(NOUNS) + ", " + pick(REVIEWS),
+                    completed.bookerIds[i], end.plusSeconds(delay));
+        }
+        sink.end(Table.COMMENTS);
+    }
+
+    // exponentially distributed popularity, rounded so the counts add up to the total
+    private long[] bookingsPerItem() {
+        long[] counts = new long[spec.getItems()];
+        if (counts.length == 0) {
+            return counts;
+        }
+        double[] weights = new double[counts.length];
+        double total = 0;
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = -Math.log(1 - random.nextDouble());
+            total += weights[i];
+        }
+        long assigned = 0;
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = (long) (spec.getBookings() * weights[i] / total);
+            assigned += counts[i];
+        }
+        for (int i = 0; assigned < spec.getBookings(); i = (i + 1) % counts.length) {
+            counts[i]++;
+            assigned++;
+        }
+        return counts;
+    }
+
+    // log-normal around two days
+    private long bookingSeconds() {
+        double seconds = TYPICAL_BOOKING_SECONDS * Math.exp(BOOKING_SPREAD * random.nextGaussian());
+        return Math.max(MIN_BOOKING_SECONDS, (long) seconds);
+    }
+
+    private String status(LocalDateTime start, LocalDateTime end) {
+        int roll = random.nextInt(100);
+        if (start.isAfter(now)) {
+            return roll < 35 ? "WAITING" : roll < 95 ? "APPROVED" : "REJECTED";
+        } else if (end.isAfter(now)) {
+            return roll < 90 ? "APPROVED" : "REJECTED";
+        }
+        return roll < 85 ? "APPROVED" : roll < 93 ? "REJECTED" : "CANCELED";
+    }
+
+    private long booker(long owner) {
+        if (spec.getUsers() == 1) {
+            return owner;
+        }
+        long booker;
+        do {
+            booker = user();
+        } while (booker == owner);
+        return booker;
+    }
+
+    private long user() {
+        return 1 + random.nextInt(spec.getUsers());
+    }
+
+    private long exponential(double mean, long max) {
+        return Math.min(max, (long) (-mean * Math.log(1 - random.nextDouble())));
+    }
+
+    private String pick(List<String> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    // a uniform sample of completed approved bookings, one comment each
+    private static class CompletedBookings {
+        private final long[] itemIds;
+        private final long[] bookerIds;
+        private final LocalDateTime[] ends;
+        private long seen;
+
+        CompletedBookings(int capacity) {
+            itemIds = new long[capacity];
+            bookerIds = new long[capacity];
+            ends = new LocalDateTime[capacity];
+        }
+
+        void offer(long itemId, long bookerId, LocalDateTime end, Random random) {
+            seen++;
+            int slot = seen <= itemIds.length ? (int) (seen - 1) : (int) (random.nextDouble() * seen);
+            if (slot < itemIds.length) {
+                itemIds[slot] = itemId;
+                bookerIds[slot] = bookerId;
+                ends[slot] = end;
+            }
+        }
+
+        int size() {
+            return (int) Math.min(seen, itemIds.length);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package ru.practicum.shareit.dataset;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Loads a generated dataset into empty {@code schema.sql} tables: with COPY on Postgres and JDBC
+ * batches otherwise. Identity columns are moved past the loaded ids, so the server can insert
+ * right after. The load is one transaction unless the caller already holds one on the connection.
+ */
+@Slf4j
+public final class DatasetLoader {
+
+    private DatasetLoader() {
+    }
+
+    public static void load(Connection connection, DatasetSpec spec) throws SQLException {
+        for (Table table : Table.values()) {
+            requireEmpty(connection, table);
+        }
+        boolean ownTransaction = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            DatasetSink sink = PostgresCopySink.supports(connection)
+                    ? new PostgresCopySink(connection)
+                    : new JdbcBatchSink(connection);
+            new DatasetGenerator(spec).generate(new LoggingSink(sink));
+            for (Table table : Table.values()) {
+                restartIdentity(connection, table);
+            }
+            if (ownTransaction) {
+                connection.commit();
+            }
+        } catch (SQLException | RuntimeException e) {
+            if (ownTransaction) {
+                connection.rollback();
+            }
+            throw e;
+        } finally {
+            if (ownTransaction) {
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+
+    private static void requireEmpty(Connection connection, Table table) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("select 1 from " + table.getTableName() + " limit 1")) {
+            if (rows.next()) {
+                throw new IllegalStateException("Table " + table.getTableName() + " is not empty, the dataset is loaded into empty tables");
+            }
+        }
+    }
+
+    private static void restartIdentity(Connection connection, Table table) throws SQLException {
+        long next;
+        try (Statement statement = connection.createStatement();
+             ResultSet max = statement.executeQuery("select coalesce(max(id), 0) + 1 from " + table.getTableName())) {
+            max.next();
+            next = max.getLong(1);
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("alter table " + table.getTableName() + " alter column id restart with " + next);
+        }
+    }
+
+    private static class LoggingSink implements DatasetSink {
+        private final DatasetSink sink;
+        private long rows;
+        private long started;
+
+        LoggingSink(DatasetSink sink) {
+            this.sink = sink;
+        }
+
+        @Override
+        public void begin(Table table) throws SQLException {
+            rows = 0;
+            started = System.nanoTime();
+            sink.begin(table);
+        }
+
+        @Override
+        public void row(Object... values) throws SQLException {
+            sink.row(values);
+            rows++;
+        }
+
+        @Override
+        public void end(Table table) throws SQLException {
+            sink.end(table);
+            log.info("Loaded {} rows into {} in {} ms", rows, table.getTableName(), (System.nanoTime() - started) / 1_000_000);
+        }
+    }
+}
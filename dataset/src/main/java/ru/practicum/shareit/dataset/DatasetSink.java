@@ -0,0 +1,17 @@
+package ru.practicum.shareit.dataset;
+
+import java.sql.SQLException;
+
+/**
+ * Receives generated rows table by table, in {@link Table} order. Values follow
+ * {@link Table#getColumns()}: ids are {@code long}, timestamps {@code LocalDateTime},
+ * a missing reference is {@code null}.
+ */
+public interface DatasetSink {
+
+    void begin(Table table) throws SQLException;
+
+    void row(Object... values) throws SQLException;
+
+    void end(Table table) throws SQLException;
+}
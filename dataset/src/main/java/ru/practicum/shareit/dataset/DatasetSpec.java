@@ -0,0 +1,27 @@
+package ru.practicum.shareit.dataset;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Builder
+public class DatasetSpec {
+    @Builder.Default
+    private final int users = 1000;
+    @Builder.Default
+    private final int requests = 2000;
+    @Builder.Default
+    private final int items = 5000;
+    @Builder.Default
+    private final long bookings = 50000;
+    // at most one per completed approved booking
+    @Builder.Default
+    private final int comments = 10000;
+    // the same seed and now give the same rows
+    @Builder.Default
+    private final long seed = 42;
+    @Builder.Default
+    private final LocalDateTime now = LocalDateTime.now();
+}
@@ -0,0 +1,82 @@
+package ru.practicum.shareit.dataset;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Command line entry point:
+ * <pre>
+ * java -jar dataset/target/dataset.jar --url=jdbc:postgresql://localhost:5432/shareit \
+ *     --username=ushareit --password=ushareit \
+ *     --schema=server/src/main/resources/schema.sql,server/src/main/resources/schema-postgresql.sql \
+ *     --users=100000 --items=1000000 --bookings=10000000 --comments=1000000 --requests=200000
+ * </pre>
+ * {@code --schema} runs the given comma-separated scripts first; without it the tables must exist and be empty.
+ */
+public class DatasetTool {
+    private static final Set<String> OPTIONS = Set.of("url", "username", "password", "schema",
+            "users", "requests", "items", "bookings", "comments", "seed");
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=") || !OPTIONS.contains(arg.substring(2, arg.indexOf('=')))) {
+                throw new IllegalArgumentException("Unknown argument " + arg + ", expected --name=value with name one of " + OPTIONS);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        if (!options.containsKey("url")) {
+            throw new IllegalArgumentException("--url is required");
+        }
+        DatasetSpec.DatasetSpecBuilder spec = DatasetSpec.builder().now(LocalDateTime.now());
+        if (options.containsKey("users")) {
+            spec.users(Integer.parseInt(options.get("users")));
+        }
+        if (options.containsKey("requests")) {
+            spec.requests(Integer.parseInt(options.get("requests")));
+        }
+        if (options.containsKey("items")) {
+            spec.items(Integer.parseInt(options.get("items")));
+        }
+        if (options.containsKey("bookings")) {
+            spec.bookings(Long.parseLong(options.get("bookings")));
+        }
+        if (options.containsKey("comments")) {
+            spec.comments(Integer.parseInt(options.get("comments")));
+        }
+        if (options.containsKey("seed")) {
+            spec.seed(Long.parseLong(options.get("seed")));
+        }
+        try (Connection connection = DriverManager.getConnection(options.get("url"),
+                options.get("username"), options.get("password"))) {
+            if (options.containsKey("schema")) {
+                for (String script : options.get("schema").split(",")) {
+                    runScript(connection, Path.of(script.strip()));
+                }
+            }
+            DatasetLoader.load(connection, spec.build());
+        }
+    }
+
+    // statements end with ';', whole-line '--' comments are skipped
+    private static void runScript(Connection connection, Path script) throws Exception {
+        String sql = Files.readAllLines(script).stream()
+                .filter(line -> !line.strip().startsWith("--"))
+                .collect(Collectors.joining("\n"));
+        try (Statement statement = connection.createStatement()) {
+            for (String command : sql.split(";")) {
+                if (!command.isBlank()) {
+                    statement.execute(command);
+                }
+            }
+        }
+    }
+}
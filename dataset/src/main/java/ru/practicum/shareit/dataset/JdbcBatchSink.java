@@ -0,0 +1,63 @@
+package ru.practicum.shareit.dataset;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.Collections;
+
+/**
+ * Multi-row {@code insert} batches for any JDBC driver. With Postgres, add
+ * {@code reWriteBatchedInserts=true} to the URL or use {@link PostgresCopySink}.
+ */
+public class JdbcBatchSink implements DatasetSink {
+    private static final int BATCH_SIZE = 5000;
+
+    private final Connection connection;
+    private PreparedStatement statement;
+    private int pending;
+
+    public JdbcBatchSink(Connection connection) {
+        this.connection = connection;
+    }
+
+    @Override
+    public void begin(Table table) throws SQLException {
+        String placeholders = String.join(", ", Collections.nCopies(table.getColumns().size(), "?"));
+        statement = connection.prepareStatement("insert into " + table.getTableName()
+                + " (" + String.join(", ", table.getColumns()) + ") values (" + placeholders + ")");
+    }
+
+    @Override
+    public void row(Object... values) throws SQLException {
+        for (int i = 0; i < values.length; i++) {
+            Object value = values[i];
+            if (value == null) {
+                statement.setNull(i + 1, Types.BIGINT);
+            } else if (value instanceof LocalDateTime) {
+                statement.setTimestamp(i + 1, Timestamp.valueOf((LocalDateTime) value));
+            } else {
+                statement.setObject(i + 1, value);
+            }
+        }
+        statement.addBatch();
+        if (++pending == BATCH_SIZE) {
+            statement.executeBatch();
+            pending = 0;
+        }
+    }
+
+    @Override
+    public void end(Table table) throws SQLException {
+        try {
+            if (pending > 0) {
+                statement.executeBatch();
+                pending = 0;
+            }
+        } finally {
+            statement.close();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package ru.practicum.shareit.dataset;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Streams rows through {@code COPY ... FROM STDIN} in CSV format, the fastest bulk load Postgres has.
+ */
+public class PostgresCopySink implements DatasetSink {
+    private static final int FLUSH_CHARS = 1 << 16;
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final CopyManager copyManager;
+    private final StringBuilder buffer = new StringBuilder(FLUSH_CHARS * 2);
+    private CopyIn copy;
+
+    public PostgresCopySink(Connection connection) throws SQLException {
+        this.copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+    }
+
+    public static boolean supports(Connection connection) throws SQLException {
+        return connection.isWrapperFor(PGConnection.class);
+    }
+
+    @Override
+    public void begin(Table table) throws SQLException {
+        copy = copyManager.copyIn("copy " + table.getTableName()
+                + " (" + String.join(", ", table.getColumns()) + ") from stdin with (format csv)");
+    }
+
+    @Override
+    public void row(Object... values) throws SQLException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                buffer.append(',');
+            }
+            append(values[i]);
+        }
+        buffer.append('\n');
+        if (buffer.length() >= FLUSH_CHARS) {
+            flush();
+        }
+    }
+
+    @Override
+    public void end(Table table) throws SQLException {
+        try {
+            flush();
+            copy.endCopy();
+        } finally {
+            if (copy.isActive()) {
+                copy.cancelCopy();
+            }
+        }
+    }
+
+    // an empty unquoted field is NULL in CSV format
+    private void append(Object value) {
+        if (value == null) {
+            return;
+        }
+        if (value instanceof LocalDateTime) {
+            buffer.append(TIMESTAMP.format((LocalDateTime) value));
+        } else if (value instanceof String) {
+            buffer.append('"').append(((String) value).replace("\"", "\"\"")).append('"');
+        } else {
+            buffer.append(value);
+        }
+    }
+
+    private void flush() throws SQLException {
+        if (buffer.length() > 0) {
+            byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+            copy.writeToCopy(bytes, 0, bytes.length);
+            buffer.setLength(0);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.dataset;
+
+import java.util.List;
+
+/**
+ * Tables of {@code schema.sql} in foreign-key order, with the columns a generated row fills in.
+ */
+public enum Table {
+    USERS("users", "id", "name", "email"),
+    REQUESTS("requests", "id", "description", "user_id", "created"),
+    ITEMS("items", "id", "name", "description", "available", "user_id", "request_id"),
+    BOOKINGS("bookings", "id", "item_id", "user_id", "start_time", "end_time", "status"),
+    COMMENTS("comments", "id", "item_id", "text", "user_id", "created");
+
+    private final String tableName;
+    private final List<String> columns;
+
+    Table(String tableName, String... columns) {
+        this.tableName = tableName;
+        this.columns = List.of(columns);
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public List<String> getColumns() {
+        return columns;
+    }
+}
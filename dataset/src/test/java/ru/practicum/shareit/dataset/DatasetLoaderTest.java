@@ -0,0 +1,95 @@
+package ru.practicum.shareit.dataset;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Loads a small dataset into the production schema, by JDBC batches on H2 and by COPY on Postgres,
+ * where the exclusion constraint on overlapping bookings is checked by the database itself.
+ * The Postgres case is skipped when the embedded server cannot start, e.g. when the build runs as root.
+ */
+public class DatasetLoaderTest {
+    private static final DatasetSpec SPEC = DatasetSpec.builder()
+            .users(50)
+            .requests(100)
+            .items(200)
+            .bookings(2000)
+            .comments(300)
+            .now(LocalDateTime.of(2030, 1, 1, 12, 0))
+            .build();
+
+    @Test
+    void load_whenH2_thenRowsAreConsistent() throws Exception {
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:dataset", "sa", "")) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("schema.sql"));
+            loadAndCheck(connection);
+        }
+    }
+
+    @Test
+    void load_whenPostgres_thenRowsAreConsistent() throws Exception {
+        EmbeddedPostgres postgres = null;
+        try {
+            postgres = EmbeddedPostgres.start();
+        } catch (Exception e) {
+            Assumptions.assumeTrue(false, "Embedded Postgres is not available: " + e.getMessage());
+        }
+        try (Connection connection = postgres.getPostgresDatabase().getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("schema.sql"));
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("schema-postgresql.sql"));
+            loadAndCheck(connection);
+        } finally {
+            postgres.close();
+        }
+    }
+
+    private void loadAndCheck(Connection connection) throws SQLException {
+        DatasetLoader.load(connection, SPEC);
+
+        assertEquals(50, count(connection, "select count(*) from users"));
+        assertEquals(100, count(connection, "select count(*) from requests"));
+        assertEquals(200, count(connection, "select count(*) from items"));
+        assertEquals(2000, count(connection, "select count(*) from bookings"));
+        long comments = count(connection, "select count(*) from comments");
+        assertTrue(comments > 0 && comments <= 300);
+        assertEquals(0, count(connection, "select count(*) from bookings as b join items as i on i.id = b.item_id "
+                + "where b.user_id = i.user_id"));
+        assertEquals(0, count(connection, "select count(*) from bookings as a join bookings as b "
+                + "on a.item_id = b.item_id and a.id < b.id and a.start_time < b.end_time and b.start_time < a.end_time"));
+        assertEquals(0, count(connection, "select count(*) from comments as c where not exists ("
+                + "select 1 from bookings as b where b.item_id = c.item_id and b.user_id = c.user_id "
+                + "and b.status = 'APPROVED' and b.end_time <= c.created)"));
+
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("insert into users (name, email) values ('New', 'new@mail.ru')",
+                    Statement.RETURN_GENERATED_KEYS);
+            try (ResultSet keys = statement.getGeneratedKeys()) {
+                keys.next();
+                assertEquals(51, keys.getLong("id"));
+            }
+        }
+        assertThrows(IllegalStateException.class, () -> DatasetLoader.load(connection, SPEC));
+    }
+
+    private long count(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery(sql)) {
+            result.next();
+            return result.getLong(1);
+        }
+    }
+}
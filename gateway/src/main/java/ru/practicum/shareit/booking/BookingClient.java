@@ -4,13 +4,17 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.HttpClientProperties;
 
+import java.util.HashMap;
 import java.util.Map;
 
 @Service
@@ -18,44 +22,58 @@ public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                         ClientHttpRequestFactory requestFactory,
+                         WebClient webClient, HttpClientProperties properties) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                webClient.mutate()
+                        .uriBuilderFactory(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
+                        .build(),
+                properties.proxyModeOf(API_PREFIX)
         );
     }
 
-    public ResponseEntity<Object> createBooking(BookingDto bookingDto, Long userId) {
+    public Mono<ResponseEntity<Object>> createBooking(BookingDto bookingDto, Long userId) {
         return post("", userId, bookingDto);
     }
 
 
-    public ResponseEntity<Object> approveBooking(Long bookingId, long userId, Boolean approved) {
+    public Mono<ResponseEntity<Object>> approveBooking(Long bookingId, long userId, Boolean approved) {
         return patch("/" + bookingId + "?approved=" + approved, userId);
     }
 
-    public ResponseEntity<Object> getBookingById(Long bookingId, Long userId) {
+    public Mono<ResponseEntity<Object>> getBookingById(Long bookingId, Long userId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getAllBookingsByUserId(Long userId, BookingState state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
+    public Mono<ResponseEntity<Object>> getAllBookingsByUserId(Long userId, BookingState state, Integer from, Integer size, String cursor) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "state", state.name(),
                 "from", from,
                 "size", size
-        );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+        ));
+        if (cursor == null) {
+            return get("?state={state}&from={from}&size={size}", userId, parameters);
+        }
+        parameters.put("cursor", cursor);
+        return get("?state={state}&size={size}&cursor={cursor}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getAllBookingsByOwnerId(Long userId, BookingState state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
+    public Mono<ResponseEntity<Object>> getAllBookingsByOwnerId(Long userId, BookingState state, Integer from, Integer size, String cursor) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "state", state.name(),
                 "from", from,
                 "size", size
-        );
-        return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+        ));
+        if (cursor == null) {
+            return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+        }
+        parameters.put("cursor", cursor);
+        return get("/owner?state={state}&size={size}&cursor={cursor}", userId, parameters);
     }
 
 }
@@ -5,6 +5,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 
@@ -22,47 +23,49 @@ public class BookingController {
     private final BookingClient bookingClient;
 
     @PostMapping
-    public ResponseEntity<Object> createBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                @Valid @RequestBody BookingDto bookingDto) {
+    public Mono<ResponseEntity<Object>> createBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                     @Valid @RequestBody BookingDto bookingDto) {
         log.info("Create Booking");
         return bookingClient.createBooking(bookingDto, userId);
     }
 
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> approveBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                 @PathVariable Long bookingId,
-                                                 @RequestParam Boolean approved) {
+    public Mono<ResponseEntity<Object>> approveBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                      @PathVariable Long bookingId,
+                                                      @RequestParam Boolean approved) {
         log.info("User {} set approval to Booking ID {}", userId, bookingId);
         return bookingClient.approveBooking(bookingId, userId, approved);
     }
 
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getBookingById(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                 @PathVariable Long bookingId) {
+    public Mono<ResponseEntity<Object>> getBookingById(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                      @PathVariable Long bookingId) {
         log.info("User ID {} requests information by Booking ID {}", userId, bookingId);
         return bookingClient.getBookingById(bookingId, userId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllBookingsByUserId(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                         @RequestParam(name = "state", defaultValue = "all") String stateParam,
-                                                         @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                                         @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+    public Mono<ResponseEntity<Object>> getAllBookingsByUserId(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                              @RequestParam(name = "state", defaultValue = "all") String stateParam,
+                                                              @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                              @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                              @RequestParam(name = "cursor", required = false) String cursor) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
-        log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
-        return bookingClient.getAllBookingsByUserId(userId, state, from, size);
+        log.info("Get booking with state {}, userId={}, from={}, size={}, cursor={}", stateParam, userId, from, size, cursor);
+        return bookingClient.getAllBookingsByUserId(userId, state, from, size, cursor);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getAllBookingsByOwnerId(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                          @RequestParam(name = "state", defaultValue = "all") String stateParam,
-                                                          @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                                          @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+    public Mono<ResponseEntity<Object>> getAllBookingsByOwnerId(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                               @RequestParam(name = "state", defaultValue = "all") String stateParam,
+                                                               @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                               @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                              @RequestParam(name = "cursor", required = false) String cursor) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
-        log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
-        return bookingClient.getAllBookingsByOwnerId(userId, state, from, size);
+        log.info("Get booking with state {}, userId={}, from={}, size={}, cursor={}", stateParam, userId, from, size, cursor);
+        return bookingClient.getAllBookingsByOwnerId(userId, state, from, size, cursor);
     }
 }
 
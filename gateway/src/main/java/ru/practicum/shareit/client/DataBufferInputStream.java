@@ -0,0 +1,106 @@
+package ru.practicum.shareit.client;
+
+import org.reactivestreams.Subscription;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Reads a response body as it arrives. One buffer is requested at a time, the next one only
+ * after the previous has been read, so a large body never sits in memory as a whole.
+ */
+class DataBufferInputStream extends InputStream {
+    private static final Object COMPLETE = new Object();
+
+    private final BlockingQueue<Object> signals = new LinkedBlockingQueue<>();
+    private final BaseSubscriber<DataBuffer> subscriber = new BaseSubscriber<>() {
+        @Override
+        protected void hookOnSubscribe(Subscription subscription) {
+            subscription.request(1);
+        }
+
+        @Override
+        protected void hookOnNext(DataBuffer buffer) {
+            signals.add(buffer);
+        }
+
+        @Override
+        protected void hookOnComplete() {
+            signals.add(COMPLETE);
+        }
+
+        @Override
+        protected void hookOnError(Throwable error) {
+            signals.add(error);
+        }
+    };
+    private InputStream current;
+    private boolean done;
+
+    DataBufferInputStream(Flux<DataBuffer> body) {
+        body.subscribe(subscriber);
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] single = new byte[1];
+        return read(single, 0, 1) == -1 ? -1 : single[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+        while (!done) {
+            if (current == null) {
+                Object signal = take();
+                if (signal == COMPLETE) {
+                    done = true;
+                    break;
+                }
+                if (signal instanceof Throwable) {
+                    done = true;
+                    throw new IOException("Reading the server response failed", (Throwable) signal);
+                }
+                current = ((DataBuffer) signal).asInputStream(true);
+            }
+            int read = current.read(bytes, offset, length);
+            if (read != -1) {
+                return read;
+            }
+            current.close();
+            current = null;
+            subscriber.request(1);
+        }
+        return -1;
+    }
+
+    @Override
+    public void close() throws IOException {
+        done = true;
+        subscriber.dispose();
+        if (current != null) {
+            current.close();
+            current = null;
+        }
+        Object signal;
+        while ((signal = signals.poll()) != null) {
+            if (signal instanceof DataBuffer) {
+                DataBufferUtils.release((DataBuffer) signal);
+            }
+        }
+    }
+
+    private Object take() throws IOException {
+        try {
+            return signals.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the server response", e);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.client;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Component
+@ConfigurationProperties(prefix = "shareit-server.http")
+@Data
+public class HttpClientProperties {
+    // pooled connections to all routes and to one route (the gateway talks to a single server)
+    private int maxTotal = 200;
+    private int maxPerRoute = 100;
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    // waiting for a free connection in the pool
+    private Duration connectionRequestTimeout = Duration.ofSeconds(2);
+    private Duration readTimeout = Duration.ofSeconds(30);
+    // kept-alive connections idle this long are closed in the background
+    private Duration idleEvictAfter = Duration.ofSeconds(30);
+    // used when the server sends no Keep-Alive timeout
+    private Duration keepAlive = Duration.ofSeconds(60);
+    // per client, keyed by its API prefix without the slash: bookings, items, requests, users
+    private Map<String, ProxyMode> proxyMode = new HashMap<>();
+
+    public ProxyMode proxyModeOf(String apiPrefix) {
+        return proxyMode.getOrDefault(apiPrefix.replaceFirst("^/", ""), ProxyMode.BLOCKING);
+    }
+}
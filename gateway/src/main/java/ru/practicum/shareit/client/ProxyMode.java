@@ -0,0 +1,11 @@
+package ru.practicum.shareit.client;
+
+public enum ProxyMode {
+    // RestTemplate on the pooled Apache client, the body is read into objects and written back out
+    BLOCKING,
+    // RestTemplate on the pooled Apache client, the body bytes and content headers are relayed as they are
+    PASS_THROUGH,
+    // WebClient on Reactor Netty, relayed like PASS_THROUGH without holding a servlet thread while the server
+    // responds; the body is streamed instead of read into memory
+    REACTIVE
+}
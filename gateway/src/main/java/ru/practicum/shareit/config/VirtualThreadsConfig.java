@@ -0,0 +1,41 @@
+package ru.practicum.shareit.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs Tomcat request handling on virtual threads when {@code shareit.virtual-threads.enabled=true}.
+ * Blocking {@code BaseClient} exchanges run on the request thread, so they wait on a virtual thread
+ * too and are then bounded by {@code shareit-server.http.max-per-route} instead of the Tomcat pool.
+ * The module is still compiled for Java 11, so the executor is looked up at runtime and startup
+ * fails if the JVM has no virtual threads (before Java 21).
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit.virtual-threads.enabled", havingValue = "true")
+@Slf4j
+public class VirtualThreadsConfig {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadsProtocolHandlerCustomizer() {
+        ExecutorService executor = newVirtualThreadPerTaskExecutor();
+        log.info("Tomcat requests run on virtual threads");
+        return protocolHandler -> protocolHandler.setExecutor(executor);
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("shareit.virtual-threads.enabled needs Java 21 or later, running on "
+                    + Runtime.version(), e);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create a virtual thread executor", e);
+        }
+    }
+}
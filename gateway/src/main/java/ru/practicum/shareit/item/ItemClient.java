@@ -4,13 +4,17 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.HttpClientProperties;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
 import java.util.Map;
 
 @Service
@@ -18,24 +22,30 @@ public class ItemClient extends BaseClient {
     public static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      ClientHttpRequestFactory requestFactory,
+                      WebClient webClient, HttpClientProperties properties) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                webClient.mutate()
+                        .uriBuilderFactory(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
+                        .build(),
+                properties.proxyModeOf(API_PREFIX)
         );
     }
 
-    public ResponseEntity<Object> createItem(ItemDto itemDto, Long userId) {
+    public Mono<ResponseEntity<Object>> createItem(ItemDto itemDto, Long userId) {
         return post("", userId, itemDto);
     }
 
-    public ResponseEntity<Object> getItemById(Long itemId, Long userId) {
+    public Mono<ResponseEntity<Object>> getItemById(Long itemId, Long userId) {
         return get("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> getAllItemsOfUser(Long userId, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> getAllItemsOfUser(Long userId, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -43,15 +53,15 @@ public class ItemClient extends BaseClient {
         return get("?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> updateItem(Long itemId, ItemDto itemDto, Long userId) {
+    public Mono<ResponseEntity<Object>> updateItem(Long itemId, ItemDto itemDto, Long userId) {
         return patch("/" + itemId, userId, itemDto);
     }
 
-    public ResponseEntity<Object> deleteItemById(Long itemId, Long userId) {
+    public Mono<ResponseEntity<Object>> deleteItemById(Long itemId, Long userId) {
         return delete("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> searchItem(String text, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> searchItem(String text, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "text", text,
                 "from", from,
@@ -60,7 +70,23 @@ public class ItemClient extends BaseClient {
         return get("/search?text={text}&from={from}&size={size}", parameters);
     }
 
-    public ResponseEntity<Object> postComment(Long itemId, Long userId, CommentDto commentDto) {
+    public Mono<ResponseEntity<Object>> suggestItemNames(String prefix, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "prefix", prefix,
+                "size", size
+        );
+        return get("/search/suggest?prefix={prefix}&size={size}", parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> getAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "to", to
+        );
+        return get("/" + itemId + "/availability?from={from}&to={to}", parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> postComment(Long itemId, Long userId, CommentDto commentDto) {
         return post("/" + itemId + "/comment", userId, commentDto);
     }
 
@@ -2,15 +2,18 @@ package ru.practicum.shareit.item;
 
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.time.LocalDateTime;
 
 @RestController
 @Slf4j
@@ -21,54 +24,72 @@ public class ItemController {
     private final ItemClient itemClient;
 
     @PostMapping
-    public ResponseEntity<Object> createItem(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                             @Valid @RequestBody ItemDto itemDto) {
+    public Mono<ResponseEntity<Object>> createItem(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                  @Valid @RequestBody ItemDto itemDto) {
         log.info("Create new User");
         return itemClient.createItem(itemDto, userId);
     }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getItemById(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                              @PathVariable Long itemId) {
+    public Mono<ResponseEntity<Object>> getItemById(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                   @PathVariable Long itemId) {
         log.info("Get Item by ID {}", itemId);
         return itemClient.getItemById(itemId, userId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllItemsOfUser(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                    @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
-                                                    @RequestParam(defaultValue = "10") @Positive Integer size) {
+    public Mono<ResponseEntity<Object>> getAllItemsOfUser(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                         @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
+                                                         @RequestParam(defaultValue = "10") @Positive Integer size) {
         log.info("Get all Items of Owner");
         return itemClient.getAllItemsOfUser(userId, from, size);
     }
 
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> updateItem(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                             @PathVariable Long itemId,
-                                             @RequestBody ItemDto itemDto) {
+    public Mono<ResponseEntity<Object>> updateItem(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                  @PathVariable Long itemId,
+                                                  @RequestBody ItemDto itemDto) {
         log.info("Update Item");
         return itemClient.updateItem(itemId, itemDto, userId);
     }
 
     @DeleteMapping("/{itemId}")
-    public ResponseEntity<Object> deleteItemById(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                 @PathVariable Long itemId) {
+    public Mono<ResponseEntity<Object>> deleteItemById(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                      @PathVariable Long itemId) {
         log.info("Delete Item by ID {}", itemId);
         return itemClient.deleteItemById(itemId, userId);
     }
 
     @GetMapping("/search")  //@GetMapping("/search?text={text}")
-    public ResponseEntity<Object> searchItem(@RequestParam String text,
-                                             @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
-                                             @RequestParam(defaultValue = "10") @Positive Integer size) {
+    public Mono<ResponseEntity<Object>> searchItem(@RequestParam String text,
+                                                  @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
+                                                  @RequestParam(defaultValue = "10") @Positive Integer size) {
         log.info("Search by text: {}", text);
         return itemClient.searchItem(text, from, size);
     }
 
+    @GetMapping("/search/suggest")
+    public Mono<ResponseEntity<Object>> suggestItemNames(@RequestParam String prefix,
+                                                        @RequestParam(defaultValue = "10") @Positive Integer size) {
+        log.info("Suggest item names by prefix: {}", prefix);
+        return itemClient.suggestItemNames(prefix, size);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public Mono<ResponseEntity<Object>> getAvailability(@PathVariable Long itemId,
+                                                       @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                       @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("From should be before to");
+        }
+        log.info("Get availability of Item ID {} from {} to {}", itemId, from, to);
+        return itemClient.getAvailability(itemId, from, to);
+    }
+
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> postComment(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                              @PathVariable Long itemId,
-                                              @Valid @RequestBody CommentDto commentDto) {
+    public Mono<ResponseEntity<Object>> postComment(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                   @PathVariable Long itemId,
+                                                   @Valid @RequestBody CommentDto commentDto) {
         return itemClient.postComment(itemId, userId, commentDto);
     }
 }
@@ -3,10 +3,13 @@ package ru.practicum.shareit.request;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.HttpClientProperties;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import java.util.Map;
@@ -15,24 +18,37 @@ import java.util.Map;
 public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                             ClientHttpRequestFactory requestFactory,
+                             WebClient webClient, HttpClientProperties properties) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                webClient.mutate()
+                        .uriBuilderFactory(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
+                        .build(),
+                properties.proxyModeOf(API_PREFIX)
         );
     }
 
-    public ResponseEntity<Object> createPost(ItemRequestDto itemRequestDto, Long userId) {
+    public Mono<ResponseEntity<Object>> createPost(ItemRequestDto itemRequestDto, Long userId) {
         return post("", userId, itemRequestDto);
     }
 
-    public ResponseEntity<Object> itemRequestsByRequestor(Long userId) {
-        return get("", userId);
+    public Mono<ResponseEntity<Object>> itemRequestsByRequestor(Long userId, Integer from, Integer size) {
+        if (size == null) {
+            return get("", userId);
+        }
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "size", size
+        );
+        return get("?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> itemRequestsAll(Long userId, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> itemRequestsAll(Long userId, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -40,7 +56,7 @@ public class ItemRequestClient extends BaseClient {
         return get("/all?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getItemRequestById(Long userId, Long requestId) {
+    public Mono<ResponseEntity<Object>> getItemRequestById(Long userId, Long requestId) {
         return get("/" + requestId, userId);
     }
 
@@ -4,10 +4,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.HttpClientProperties;
 import ru.practicum.shareit.user.dto.UserDto;
 
 @Service
@@ -15,32 +18,38 @@ public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
 
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      ClientHttpRequestFactory requestFactory,
+                      WebClient webClient, HttpClientProperties properties) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                webClient.mutate()
+                        .uriBuilderFactory(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
+                        .build(),
+                properties.proxyModeOf(API_PREFIX)
         );
     }
 
-    public ResponseEntity<Object> create(UserDto userDto) {
+    public Mono<ResponseEntity<Object>> create(UserDto userDto) {
         return post("", userDto);
     }
 
-    public ResponseEntity<Object> getAllUsers() {
+    public Mono<ResponseEntity<Object>> getAllUsers() {
         return get("");
     }
 
-    public ResponseEntity<Object> getUserById(Long userId) {
+    public Mono<ResponseEntity<Object>> getUserById(Long userId) {
         return get("/" + userId);
     }
 
-    public ResponseEntity<Object> update(Long userId, UserDto userDto) {
+    public Mono<ResponseEntity<Object>> update(Long userId, UserDto userDto) {
         return patch("/" + userId, userDto);
     }
 
-    public ResponseEntity<Object> deleteUserById(Long userId) {
+    public Mono<ResponseEntity<Object>> deleteUserById(Long userId) {
         return delete("/" + userId);
     }
 
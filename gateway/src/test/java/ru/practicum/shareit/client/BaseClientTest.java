@@ -0,0 +1,99 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withRawStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+
+public class BaseClientTest {
+    static final byte[] PAGE = "[{\"id\":1}]".getBytes(StandardCharsets.UTF_8);
+    static final byte[] ERROR = "{\"error\":\"Unknown state: UNSUPPORTED_STATUS\"}".getBytes(StandardCharsets.UTF_8);
+    static final MediaType JSON_UTF8 = MediaType.parseMediaType("application/json;charset=UTF-8");
+
+    RestTemplate rest;
+    MockRestServiceServer server;
+
+    @BeforeEach
+    void setUp() {
+        rest = new RestTemplate();
+        rest.setUriTemplateHandler(new DefaultUriBuilderFactory("http://shareit-server/bookings"));
+        server = MockRestServiceServer.bindTo(rest).build();
+    }
+
+    @Test
+    void passThrough_whenOk_thenBodyCursorAndContentTypeRelayedAndLengthDropped() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(JSON_UTF8);
+        headers.set("X-Next-Cursor", "MjAzMC0wMS0wMVQxMjowMHwx");
+        headers.setContentLength(PAGE.length);
+        headers.set(HttpHeaders.TRANSFER_ENCODING, "chunked");
+        server.expect(requestTo("http://shareit-server/bookings?state=ALL"))
+                .andExpect(method(HttpMethod.GET))
+                .andRespond(withStatus(HttpStatus.OK).headers(headers).body(PAGE));
+
+        ResponseEntity<Object> response = client(ProxyMode.PASS_THROUGH).get("?state=ALL", 1L).block();
+
+        assertThat(response.getStatusCodeValue(), equalTo(200));
+        assertThat(response.getBody(), equalTo(PAGE));
+        assertThat(response.getHeaders().getContentType(), equalTo(JSON_UTF8));
+        assertThat(response.getHeaders().getFirst("X-Next-Cursor"), equalTo("MjAzMC0wMS0wMVQxMjowMHwx"));
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_LENGTH), nullValue());
+        assertThat(response.getHeaders().getFirst(HttpHeaders.TRANSFER_ENCODING), nullValue());
+    }
+
+    @Test
+    void passThrough_whenError_thenStatusBodyAndContentTypeRelayed() {
+        server.expect(requestTo("http://shareit-server/bookings?state=UNSUPPORTED_STATUS"))
+                .andRespond(withStatus(HttpStatus.BAD_REQUEST).contentType(JSON_UTF8).body(ERROR));
+
+        ResponseEntity<Object> response = client(ProxyMode.PASS_THROUGH).get("?state=UNSUPPORTED_STATUS", 1L).block();
+
+        assertThat(response.getStatusCodeValue(), equalTo(400));
+        assertThat(response.getBody(), equalTo(ERROR));
+        assertThat(response.getHeaders().getContentType(), equalTo(JSON_UTF8));
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_LENGTH), nullValue());
+    }
+
+    @Test
+    void passThrough_whenUnknownStatus_thenRelayedAsError() {
+        server.expect(requestTo("http://shareit-server/bookings/1"))
+                .andRespond(withRawStatus(499).contentType(JSON_UTF8).body(ERROR));
+
+        ResponseEntity<Object> response = client(ProxyMode.PASS_THROUGH).get("/1", 1L).block();
+
+        assertThat(response.getStatusCodeValue(), equalTo(499));
+        assertThat(response.getBody(), equalTo(ERROR));
+        assertThat(response.getHeaders().getContentType(), equalTo(JSON_UTF8));
+    }
+
+    @Test
+    void blocking_whenUnknownStatus_thenRelayedAsError() {
+        server.expect(requestTo("http://shareit-server/bookings/1"))
+                .andRespond(withRawStatus(599).contentType(JSON_UTF8).body(ERROR));
+
+        ResponseEntity<Object> response = client(ProxyMode.BLOCKING).get("/1", 1L).block();
+
+        assertThat(response.getStatusCodeValue(), equalTo(599));
+        assertThat(response.getBody(), equalTo(ERROR));
+    }
+
+    private BaseClient client(ProxyMode mode) {
+        return new BaseClient(rest, null, mode);
+    }
+}
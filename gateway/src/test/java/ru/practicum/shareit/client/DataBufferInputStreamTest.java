@@ -0,0 +1,46 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class DataBufferInputStreamTest {
+    final DefaultDataBufferFactory factory = new DefaultDataBufferFactory();
+
+    @Test
+    void read_whenSeveralBuffers_thenBodyReadInOrderOneBufferAtATime() throws IOException {
+        AtomicLong requested = new AtomicLong();
+        Flux<DataBuffer> body = Flux.just("[{\"id\":1}", ",", "{\"id\":2}]")
+                .map(this::buffer)
+                .doOnRequest(requested::addAndGet);
+
+        try (InputStream in = new DataBufferInputStream(body)) {
+            assertThat(requested.get(), equalTo(1L));
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8), equalTo("[{\"id\":1},{\"id\":2}]"));
+            assertThat(in.read(), equalTo(-1));
+        }
+    }
+
+    @Test
+    void read_whenBodyFails_thenIOException() {
+        Flux<DataBuffer> body = Flux.concat(Flux.just(buffer("[")), Flux.error(new IllegalStateException("reset")));
+
+        InputStream in = new DataBufferInputStream(body);
+
+        assertThrows(IOException.class, in::readAllBytes);
+    }
+
+    private DataBuffer buffer(String text) {
+        return factory.wrap(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
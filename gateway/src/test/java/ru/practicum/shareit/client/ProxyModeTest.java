@@ -0,0 +1,185 @@
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Sends gateway requests in every proxy mode to a server stub and checks that its status,
+ * headers and body reach the client after the async dispatch. In REACTIVE mode the request
+ * thread must return before the server has answered.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+public class ProxyModeTest {
+    static final String BOOKING = "{\"id\":1,\"status\":\"WAITING\"}";
+    static final String CREATED = "{\"id\":3,\"status\":\"WAITING\"}";
+    static final String NOT_FOUND = "{\"error\":\"Booking ID 2 not found\"}";
+    static final String BOOKING_IN = "{\"itemId\":1,\"start\":\"2100-01-01T10:00:00\",\"end\":\"2100-01-02T10:00:00\"}";
+
+    static final HttpServer STUB = startStub();
+    // holds the stub's answer to GET /bookings/3 until released
+    static volatile CountDownLatch slowResponse = new CountDownLatch(0);
+
+    @DynamicPropertySource
+    static void stubProperties(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", () -> "http://127.0.0.1:" + STUB.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void stopStub() {
+        STUB.stop(0);
+    }
+
+    @Nested
+    @TestPropertySource(properties = "shareit-server.http.proxy-mode.bookings=blocking")
+    class Blocking extends ProxyModeCases {
+    }
+
+    @Nested
+    @TestPropertySource(properties = "shareit-server.http.proxy-mode.bookings=pass_through")
+    class PassThrough extends ProxyModeCases {
+    }
+
+    @Nested
+    @TestPropertySource(properties = "shareit-server.http.proxy-mode.bookings=reactive")
+    class Reactive extends ProxyModeCases {
+
+        @Test
+        void get_whenServerSlow_thenRequestThreadReleasedBeforeAnswer() throws Exception {
+            slowResponse = new CountDownLatch(1);
+            MvcResult result;
+            try {
+                result = mvc.perform(get("/bookings/3").header("X-Sharer-User-Id", 2))
+                        .andExpect(request().asyncStarted())
+                        .andReturn();
+                assertFalse(WebAsyncUtils.getAsyncManager(result.getRequest()).hasConcurrentResult());
+            } finally {
+                slowResponse.countDown();
+            }
+            mvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.id").value(1));
+        }
+    }
+
+    abstract class ProxyModeCases {
+        @Autowired
+        MockMvc mvc;
+
+        @Test
+        void get_whenFound_thenStatusAndBodyRelayed() throws Exception {
+            send(get("/bookings/1").header("X-Sharer-User-Id", 2))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.id").value(1))
+                    .andExpect(jsonPath("$.status").value("WAITING"));
+        }
+
+        @Test
+        void get_whenServerReturnsError_thenErrorStatusAndBodyRelayed() throws Exception {
+            send(get("/bookings/2").header("X-Sharer-User-Id", 2))
+                    .andExpect(status().isNotFound())
+                    .andExpect(jsonPath("$.error").value("Booking ID 2 not found"));
+        }
+
+        @Test
+        void get_whenNextCursor_thenHeaderRelayed() throws Exception {
+            send(get("/bookings").header("X-Sharer-User-Id", 2).param("cursor", "abc"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("X-Next-Cursor", "def"))
+                    .andExpect(jsonPath("$").isEmpty());
+        }
+
+        @Test
+        void post_whenCreated_thenCreatedRelayed() throws Exception {
+            send(post("/bookings").header("X-Sharer-User-Id", 2)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(BOOKING_IN))
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$.id").value(3));
+        }
+
+        ResultActions send(MockHttpServletRequestBuilder builder) throws Exception {
+            MvcResult result = mvc.perform(builder)
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            return mvc.perform(asyncDispatch(result));
+        }
+    }
+
+    private static HttpServer startStub() {
+        try {
+            HttpServer stub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            stub.createContext("/bookings", exchange -> {
+                String path = exchange.getRequestURI().getPath();
+                if (exchange.getRequestMethod().equals("POST")) {
+                    respond(exchange, 201, CREATED);
+                } else if (path.equals("/bookings/1")) {
+                    respond(exchange, 200, BOOKING);
+                } else if (path.equals("/bookings/3")) {
+                    awaitRelease();
+                    respond(exchange, 200, BOOKING);
+                } else if (path.equals("/bookings") && exchange.getRequestURI().getQuery().contains("cursor=abc")) {
+                    exchange.getResponseHeaders().add("X-Next-Cursor", "def");
+                    respond(exchange, 200, "[]");
+                } else {
+                    respond(exchange, 404, NOT_FOUND);
+                }
+            });
+            stub.setExecutor(Executors.newCachedThreadPool());
+            stub.start();
+            return stub;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void awaitRelease() {
+        try {
+            slowResponse.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.loadtest;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * The database the server runs on. It is started by the load test, so it can be seeded before
+ * the server opens it and builds its in-memory indexes.
+ */
+public interface Database extends AutoCloseable {
+
+    static Database start(LoadTestOptions options) throws IOException {
+        switch (options.getDb()) {
+            case "h2":
+                return new H2Database(options.getWorkDir());
+            case "postgres":
+                return new PostgresDatabase();
+            default:
+                throw new IllegalArgumentException("Unknown db: " + options.getDb() + ", expected h2 or postgres");
+        }
+    }
+
+    // spring.sql.init.platform of the server, picks schema-<platform>.sql
+    String getPlatform();
+
+    Connection connect() throws SQLException;
+
+    // the server must not run schema.sql again, it drops the tables
+    List<String> serverArgs();
+
+    @Override
+    void close() throws IOException;
+}
@@ -0,0 +1,68 @@
+package ru.practicum.shareit.loadtest;
+
+import ru.practicum.shareit.dataset.DatasetGenerator;
+
+import java.util.Random;
+
+/**
+ * Gateway calls of the mix. Ids and search words are drawn from what {@link DatasetGenerator} loaded.
+ */
+public enum Endpoint {
+    SEARCH("search") {
+        @Override
+        String path(Random random, LoadTestOptions options) {
+            return "/items/search?text=" + DatasetGenerator.NOUNS.get(random.nextInt(DatasetGenerator.NOUNS.size())) + "&from=0&size=20";
+        }
+    },
+    BOOKINGS("bookings") {
+        @Override
+        String path(Random random, LoadTestOptions options) {
+            return "/bookings?state=" + state(random) + "&from=0&size=20";
+        }
+    },
+    OWNER_BOOKINGS("owner") {
+        @Override
+        String path(Random random, LoadTestOptions options) {
+            return "/bookings/owner?state=" + state(random) + "&from=0&size=20";
+        }
+    },
+    ITEM("item") {
+        @Override
+        String path(Random random, LoadTestOptions options) {
+            return "/items/" + (1 + random.nextInt(options.getItems()));
+        }
+    },
+    REQUESTS("requests") {
+        @Override
+        String path(Random random, LoadTestOptions options) {
+            return "/requests/all?from=0&size=20";
+        }
+    };
+
+    private static final String[] STATES = {"ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED"};
+
+    private final String name;
+
+    Endpoint(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    abstract String path(Random random, LoadTestOptions options);
+
+    public static Endpoint byName(String name) {
+        for (Endpoint endpoint : values()) {
+            if (endpoint.name.equals(name)) {
+                return endpoint;
+            }
+        }
+        throw new IllegalArgumentException("Unknown endpoint: " + name);
+    }
+
+    private static String state(Random random) {
+        return STATES[random.nextInt(STATES.length)];
+    }
+}
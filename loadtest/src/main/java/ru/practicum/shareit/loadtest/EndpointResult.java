@@ -0,0 +1,33 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.Getter;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+
+@Getter
+public class EndpointResult {
+    private final Histogram latencyMicros;
+    private long errors;
+
+    public EndpointResult(Histogram latencyMicros) {
+        this.latencyMicros = latencyMicros;
+    }
+
+    // failed calls are counted in the latency too, a fast error is still an answer
+    void record(long nanos, boolean ok) {
+        latencyMicros.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), latencyMicros.getHighestTrackableValue()));
+        if (!ok) {
+            errors++;
+        }
+    }
+
+    void add(EndpointResult other) {
+        latencyMicros.add(other.latencyMicros);
+        errors += other.errors;
+    }
+
+    public long getRequests() {
+        return latencyMicros.getTotalCount();
+    }
+}
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.loadtest;
+
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * File-based H2 with the server's {@code ci} profile. The load test seeds it and closes its
+ * connection before the server opens the same file.
+ */
+public class H2Database implements Database {
+    private static final String USERNAME = "test";
+    private static final String PASSWORD = "test";
+
+    private final Path directory;
+    private final String url;
+
+    public H2Database(Path workDir) throws IOException {
+        this.directory = workDir.resolve("h2").toAbsolutePath();
+        FileSystemUtils.deleteRecursively(directory);
+        this.url = "jdbc:h2:file:" + directory.resolve("shareit");
+    }
+
+    @Override
+    public String getPlatform() {
+        return "h2";
+    }
+
+    @Override
+    public Connection connect() throws SQLException {
+        return DriverManager.getConnection(url, USERNAME, PASSWORD);
+    }
+
+    @Override
+    public List<String> serverArgs() {
+        return List.of(
+                "--spring.profiles.active=ci",
+                "--spring.datasource.url=" + url,
+                "--spring.sql.init.mode=never");
+    }
+
+    @Override
+    public void close() throws IOException {
+        FileSystemUtils.deleteRecursively(directory);
+    }
+}
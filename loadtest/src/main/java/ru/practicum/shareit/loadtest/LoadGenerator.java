@@ -0,0 +1,128 @@
+package ru.practicum.shareit.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Closed-loop load: each thread sends the next request as soon as the previous one is answered,
+ * picking the endpoint by the weights of the mix. Latencies in microseconds go into per-thread
+ * HDR histograms that are merged at the end; the warmup is not recorded.
+ */
+public class LoadGenerator {
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final LoadTestOptions options;
+    private final URI baseUri;
+    private final HttpClient client;
+    private final Endpoint[] endpoints;
+    private final int[] cumulativeWeights;
+
+    public LoadGenerator(LoadTestOptions options, URI baseUri) {
+        this.options = options;
+        this.baseUri = baseUri;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(REQUEST_TIMEOUT)
+                .build();
+        this.endpoints = options.getMix().keySet().toArray(new Endpoint[0]);
+        this.cumulativeWeights = new int[endpoints.length];
+        int total = 0;
+        for (int i = 0; i < endpoints.length; i++) {
+            total += options.getMix().get(endpoints[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    public Map<Endpoint, EndpointResult> run() throws InterruptedException {
+        long recordFrom = System.nanoTime() + options.getWarmup().toNanos();
+        long stopAt = recordFrom + options.getDuration().toNanos();
+        List<Worker> workers = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < options.getThreads(); i++) {
+            Worker worker = new Worker(new Random(i), recordFrom, stopAt);
+            Thread thread = new Thread(worker, "load-" + i);
+            workers.add(worker);
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Map<Endpoint, EndpointResult> results = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : endpoints) {
+            results.put(endpoint, new EndpointResult(newHistogram()));
+        }
+        for (Worker worker : workers) {
+            worker.results.forEach((endpoint, result) -> results.get(endpoint).add(result));
+        }
+        return results;
+    }
+
+    private Endpoint pick(Random random) {
+        int roll = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (roll < cumulativeWeights[i]) {
+                return endpoints[i];
+            }
+        }
+        throw new IllegalStateException("Weight " + roll + " out of range");
+    }
+
+    private static Histogram newHistogram() {
+        return new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+    }
+
+    private class Worker implements Runnable {
+        private final Random random;
+        private final long recordFrom;
+        private final long stopAt;
+        private final Map<Endpoint, EndpointResult> results = new EnumMap<>(Endpoint.class);
+
+        Worker(Random random, long recordFrom, long stopAt) {
+            this.random = random;
+            this.recordFrom = recordFrom;
+            this.stopAt = stopAt;
+            for (Endpoint endpoint : endpoints) {
+                results.put(endpoint, new EndpointResult(newHistogram()));
+            }
+        }
+
+        @Override
+        public void run() {
+            long start;
+            while ((start = System.nanoTime()) < stopAt) {
+                Endpoint endpoint = pick(random);
+                HttpRequest request = HttpRequest.newBuilder(baseUri.resolve(endpoint.path(random, options)))
+                        .header("X-Sharer-User-Id", String.valueOf(1 + random.nextInt(options.getUsers())))
+                        .timeout(REQUEST_TIMEOUT)
+                        .GET()
+                        .build();
+                boolean ok;
+                try {
+                    ok = client.send(request, HttpResponse.BodyHandlers.ofByteArray()).statusCode() / 100 == 2;
+                } catch (IOException e) {
+                    ok = false;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                if (start >= recordFrom) {
+                    results.get(endpoint).record(System.nanoTime() - start, ok);
+                }
+            }
+        }
+    }
+}
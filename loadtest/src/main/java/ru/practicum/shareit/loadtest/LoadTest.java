@@ -0,0 +1,98 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import ru.practicum.shareit.dataset.DatasetLoader;
+import ru.practicum.shareit.dataset.DatasetSpec;
+
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Starts a database, seeds it, starts the server and the gateway on it and drives the endpoint mix
+ * through the gateway, then prints throughput and latency percentiles per endpoint. Full percentile
+ * distributions are written to {@code <work-dir>/<endpoint>.hgrm} for the HdrHistogram plotter.
+ * <pre>
+ * mvn -B package -DskipTests
+ * java -jar loadtest/target/loadtest.jar --db=postgres --threads=64 --duration=120
+ * </pre>
+ */
+@Slf4j
+public class LoadTest {
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        Files.createDirectories(options.getWorkDir());
+        try (Database database = Database.start(options)) {
+            try (Connection connection = database.connect()) {
+                seed(connection, database.getPlatform(), options);
+            }
+            List<String> serverArgs = new ArrayList<>(database.serverArgs());
+            serverArgs.addAll(options.getServerArgs());
+            try (AppProcess server = AppProcess.start("server", options.getServerJar(), serverArgs, options.getWorkDir())) {
+                List<String> gatewayArgs = new ArrayList<>();
+                gatewayArgs.add("--shareit-server.url=" + server.getBaseUri());
+                gatewayArgs.addAll(options.getGatewayArgs());
+                try (AppProcess gateway = AppProcess.start("gateway", options.getGatewayJar(), gatewayArgs, options.getWorkDir())) {
+                    log.info("Running {} threads for {} s after {} s of warmup", options.getThreads(),
+                            options.getDuration().toSeconds(), options.getWarmup().toSeconds());
+                    Map<Endpoint, EndpointResult> results = new LoadGenerator(options, gateway.getBaseUri()).run();
+                    report(results, options);
+                }
+            }
+        }
+    }
+
+    private static void seed(Connection connection, String platform, LoadTestOptions options) throws Exception {
+        ScriptUtils.executeSqlScript(connection, new ClassPathResource("schema.sql"));
+        ClassPathResource platformSchema = new ClassPathResource("schema-" + platform + ".sql");
+        if (platformSchema.exists()) {
+            ScriptUtils.executeSqlScript(connection, platformSchema);
+        }
+        DatasetLoader.load(connection, DatasetSpec.builder()
+                .users(options.getUsers())
+                .requests(options.getRequests())
+                .items(options.getItems())
+                .bookings(options.getBookings())
+                .comments(options.getComments())
+                .build());
+    }
+
+    private static void report(Map<Endpoint, EndpointResult> results, LoadTestOptions options) throws Exception {
+        double seconds = options.getDuration().toMillis() / 1000.0;
+        System.out.printf("%-10s %10s %8s %10s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        Histogram total = new Histogram(3);
+        long totalErrors = 0;
+        for (Map.Entry<Endpoint, EndpointResult> entry : results.entrySet()) {
+            EndpointResult result = entry.getValue();
+            printRow(entry.getKey().getName(), result.getLatencyMicros(), result.getErrors(), seconds);
+            total.add(result.getLatencyMicros());
+            totalErrors += result.getErrors();
+            Path distribution = options.getWorkDir().resolve(entry.getKey().getName() + ".hgrm");
+            try (PrintStream out = new PrintStream(Files.newOutputStream(distribution))) {
+                result.getLatencyMicros().outputPercentileDistribution(out, MICROS_PER_MILLI);
+            }
+        }
+        printRow("total", total, totalErrors, seconds);
+    }
+
+    private static void printRow(String name, Histogram histogram, long errors, double seconds) {
+        System.out.printf("%-10s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                name, histogram.getTotalCount(), errors, histogram.getTotalCount() / seconds,
+                millis(histogram, 50), millis(histogram, 90), millis(histogram, 99), millis(histogram, 99.9),
+                histogram.getMaxValue() / MICROS_PER_MILLI);
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / MICROS_PER_MILLI;
+    }
+}
@@ -0,0 +1,99 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * {@code --name=value} command-line options; anything not given keeps its default.
+ */
+@Getter
+public class LoadTestOptions {
+    // h2 | postgres
+    private String db = "h2";
+    private int users = 1000;
+    private int items = 5000;
+    private int bookings = 50000;
+    private int comments = 10000;
+    private int requests = 2000;
+    private int threads = 32;
+    private Duration warmup = Duration.ofSeconds(10);
+    private Duration duration = Duration.ofSeconds(60);
+    private Map<Endpoint, Integer> mix = defaultMix();
+    private Path serverJar = Path.of("server/target/shareit-server-0.0.1-SNAPSHOT.jar");
+    private Path gatewayJar = Path.of("gateway/target/shareit-gateway-0.0.1-SNAPSHOT.jar");
+    // extra arguments passed as they are, e.g. --gateway-args="--shareit-server.http.proxy-mode.items=reactive"
+    private List<String> serverArgs = List.of();
+    private List<String> gatewayArgs = List.of();
+    private Path workDir = Path.of("loadtest/target/run");
+
+    public static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            values.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        LoadTestOptions options = new LoadTestOptions();
+        options.db = values.getOrDefault("db", options.db);
+        options.users = intValue(values, "users", options.users);
+        options.items = intValue(values, "items", options.items);
+        options.bookings = intValue(values, "bookings", options.bookings);
+        options.comments = intValue(values, "comments", options.comments);
+        options.requests = intValue(values, "requests", options.requests);
+        options.threads = intValue(values, "threads", options.threads);
+        options.warmup = Duration.ofSeconds(intValue(values, "warmup", (int) options.warmup.toSeconds()));
+        options.duration = Duration.ofSeconds(intValue(values, "duration", (int) options.duration.toSeconds()));
+        if (values.containsKey("mix")) {
+            options.mix = parseMix(values.get("mix"));
+        }
+        options.serverJar = Path.of(values.getOrDefault("server-jar", options.serverJar.toString()));
+        options.gatewayJar = Path.of(values.getOrDefault("gateway-jar", options.gatewayJar.toString()));
+        options.serverArgs = listValue(values, "server-args");
+        options.gatewayArgs = listValue(values, "gateway-args");
+        options.workDir = Path.of(values.getOrDefault("work-dir", options.workDir.toString()));
+        values.keySet().removeAll(List.of("db", "users", "items", "bookings", "comments", "requests", "threads",
+                "warmup", "duration", "mix", "server-jar", "gateway-jar", "server-args", "gateway-args", "work-dir"));
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options: " + values.keySet());
+        }
+        return options;
+    }
+
+    // search=30,bookings=20,...; endpoints left out are not called
+    private static Map<Endpoint, Integer> parseMix(String value) {
+        Map<Endpoint, Integer> mix = new EnumMap<>(Endpoint.class);
+        for (String part : value.split(",")) {
+            String[] pair = part.split("=");
+            mix.put(Endpoint.byName(pair[0].trim()), Integer.parseInt(pair[1].trim()));
+        }
+        return mix;
+    }
+
+    private static Map<Endpoint, Integer> defaultMix() {
+        Map<Endpoint, Integer> mix = new EnumMap<>(Endpoint.class);
+        mix.put(Endpoint.SEARCH, 30);
+        mix.put(Endpoint.BOOKINGS, 20);
+        mix.put(Endpoint.OWNER_BOOKINGS, 20);
+        mix.put(Endpoint.ITEM, 20);
+        mix.put(Endpoint.REQUESTS, 10);
+        return mix;
+    }
+
+    private static int intValue(Map<String, String> values, String name, int defaultValue) {
+        return values.containsKey(name) ? Integer.parseInt(values.get(name)) : defaultValue;
+    }
+
+    private static List<String> listValue(Map<String, String> values, String name) {
+        String value = values.getOrDefault(name, "").trim();
+        return value.isEmpty() ? List.of() : Arrays.stream(value.split("\\s+")).collect(Collectors.toList());
+    }
+}
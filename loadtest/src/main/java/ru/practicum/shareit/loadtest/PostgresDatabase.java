@@ -0,0 +1,46 @@
+package ru.practicum.shareit.loadtest;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Embedded Postgres binaries started on a free port, no Docker needed.
+ */
+public class PostgresDatabase implements Database {
+    private static final String DATABASE = "postgres";
+    private static final String USERNAME = "postgres";
+
+    private final EmbeddedPostgres postgres;
+
+    public PostgresDatabase() throws IOException {
+        this.postgres = EmbeddedPostgres.start();
+    }
+
+    @Override
+    public String getPlatform() {
+        return "postgresql";
+    }
+
+    @Override
+    public Connection connect() throws SQLException {
+        return postgres.getPostgresDatabase().getConnection();
+    }
+
+    @Override
+    public List<String> serverArgs() {
+        return List.of(
+                "--spring.datasource.url=" + postgres.getJdbcUrl(USERNAME, DATABASE),
+                "--spring.datasource.username=" + USERNAME,
+                "--spring.datasource.password=" + USERNAME,
+                "--spring.sql.init.mode=never");
+    }
+
+    @Override
+    public void close() throws IOException {
+        postgres.close();
+    }
+}
@@ -2,8 +2,10 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPage;
 import ru.practicum.shareit.booking.service.BookingService;
 
 import java.util.List;
@@ -13,6 +15,8 @@ import java.util.List;
 @RequiredArgsConstructor
 @Slf4j
 public class BookingController {
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final BookingService bookingService;
 
     @PostMapping
@@ -38,20 +42,37 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingDto> getAllBookingsByUserId(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                   @RequestParam(defaultValue = "ALL") String state,
-                                                   @RequestParam(defaultValue = "0") Integer from,
-                                                   @RequestParam(defaultValue = "10") Integer size) {
+    public ResponseEntity<List<BookingDto>> getAllBookingsByUserId(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                   @RequestParam(defaultValue = "ALL") String state,
+                                                                   @RequestParam(defaultValue = "0") Integer from,
+                                                                   @RequestParam(defaultValue = "10") Integer size,
+                                                                   @RequestParam(required = false) String cursor) {
         log.info("Get all bookings by User ID {}, state: {}", userId, state);
-        return bookingService.getAllBookingsByUserId(userId, state, from, size);
+        if (cursor == null) {
+            return ResponseEntity.ok(bookingService.getAllBookingsByUserId(userId, state, from, size));
+        }
+        return toResponse(bookingService.getAllBookingsByUserId(userId, state, cursor, size));
     }
 
     @GetMapping("/owner")
-    public List<BookingDto> getAllBookingsByOwnerId(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                    @RequestParam(defaultValue = "ALL") String state,
-                                                    @RequestParam(defaultValue = "0") Integer from,
-                                                    @RequestParam(defaultValue = "10") Integer size) {
+    public ResponseEntity<List<BookingDto>> getAllBookingsByOwnerId(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                    @RequestParam(defaultValue = "ALL") String state,
+                                                                    @RequestParam(defaultValue = "0") Integer from,
+                                                                    @RequestParam(defaultValue = "10") Integer size,
+                                                                    @RequestParam(required = false) String cursor) {
         log.info("Get all bookings by Owner ID {}, state: {}", userId, state);
-        return bookingService.getAllBookingsByOwnerId(userId, state, from, size);
+        if (cursor == null) {
+            return ResponseEntity.ok(bookingService.getAllBookingsByOwnerId(userId, state, from, size));
+        }
+        return toResponse(bookingService.getAllBookingsByOwnerId(userId, state, cursor, size));
+    }
+
+    // cursor mode: an empty cursor asks for the first page, the next one comes back in a header
+    private ResponseEntity<List<BookingDto>> toResponse(BookingPage page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getBookings());
     }
 }
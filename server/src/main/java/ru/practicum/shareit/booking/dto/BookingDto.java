@@ -27,4 +27,12 @@ public class BookingDto {
     LocalDateTime start;
     LocalDateTime end;
     Status status;  // WAITING - APPROVED - REJECTED - CANCELED
+
+    // flat row of a projection query
+    public BookingDto(Long id, Long itemId, String itemName, String itemDescription, Boolean itemAvailable,
+                      Long itemRequestId, Long bookerId, String bookerName, String bookerEmail,
+                      LocalDateTime start, LocalDateTime end, Status status) {
+        this(id, itemId, new ItemDto(itemId, itemName, itemDescription, itemAvailable, itemRequestId),
+                new UserDto(bookerId, bookerName, bookerEmail), start, end, status);
+    }
 }
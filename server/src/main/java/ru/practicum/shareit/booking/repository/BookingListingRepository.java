@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.State;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BookingListingRepository {
+    /**
+     * Page of bookings made by the user, or of bookings of the user's items when {@code owner} is set,
+     * read straight into {@link BookingDto} without managed entities. Item and booker are joined in the
+     * same statement, so no row loads an association on its own. Bookings are filtered by state and
+     * listed by start, with the booking id as a tie-breaker.
+     * The page starts right after {@code after} when it is given (keyset mode), else at {@code offset}.
+     */
+    List<BookingDto> findPage(Long userId, boolean owner, State state, LocalDateTime now,
+                              BookingCursor after, long offset, int size);
+}
@@ -0,0 +1,83 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.State;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BookingListingRepositoryImpl implements BookingListingRepository {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<BookingDto> findPage(Long userId, boolean owner, State state, LocalDateTime now,
+                                     BookingCursor after, long offset, int size) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookingDto> query = cb.createQuery(BookingDto.class);
+        Root<Booking> booking = query.from(Booking.class);
+        Join<Booking, Item> item = booking.join("item");
+        Join<Booking, User> booker = booking.join("booker");
+        Path<LocalDateTime> start = booking.get("start");
+        Path<LocalDateTime> end = booking.get("end");
+        Path<Long> id = booking.get("id");
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (owner) {
+            predicates.add(cb.equal(item.get("owner").get("id"), userId));
+        } else {
+            predicates.add(cb.equal(booker.get("id"), userId));
+        }
+        switch (state) {
+            case CURRENT:
+                predicates.add(cb.lessThan(start, now));
+                predicates.add(cb.greaterThan(end, now));
+                break;
+            case PAST:
+                predicates.add(cb.lessThan(end, now));
+                break;
+            case FUTURE:
+                predicates.add(cb.greaterThan(start, now));
+                break;
+            case WAITING:
+                predicates.add(cb.equal(booking.get("status"), Status.WAITING));
+                break;
+            case REJECTED:
+                predicates.add(cb.equal(booking.get("status"), Status.REJECTED));
+                break;
+            default:
+                break;
+        }
+        // current bookings of a booker are listed from the earliest, everything else from the latest
+        boolean ascending = !owner && state == State.CURRENT;
+        if (after != null) {
+            predicates.add(ascending
+                    ? cb.or(cb.greaterThan(start, after.getStart()),
+                    cb.and(cb.equal(start, after.getStart()), cb.greaterThan(id, after.getId())))
+                    : cb.or(cb.lessThan(start, after.getStart()),
+                    cb.and(cb.equal(start, after.getStart()), cb.lessThan(id, after.getId()))));
+        }
+        query.select(cb.construct(BookingDto.class,
+                        id, item.get("id"), item.get("name"), item.get("description"), item.get("available"),
+                        // the id of a to-one is the foreign key column, no join to requests
+                        item.get("request").get("id"), booker.get("id"), booker.get("name"), booker.get("email"),
+                        start, end, booking.get("status")))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(ascending
+                        ? List.of(cb.asc(start), cb.asc(id))
+                        : List.of(cb.desc(start), cb.desc(id)));
+        return entityManager.createQuery(query)
+                .setFirstResult(Math.toIntExact(offset))
+                .setMaxResults(size)
+                .getResultList();
+    }
+}
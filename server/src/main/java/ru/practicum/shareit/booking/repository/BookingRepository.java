@@ -1,57 +1,45 @@
 package ru.practicum.shareit.booking.repository;
 
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
 
+import javax.persistence.LockModeType;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingListingRepository {
 
-    List<Booking> findAllByBookerIdOrderByStartDesc(Long userId, Pageable pageable);
+    // BookingMapper.makeToDto reads both; listings get them from the joins of findPage
+    @Override
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Optional<Booking> findById(Long bookingId);
 
-    @Query(value = "select * " +
-            "from bookings as b " +
-            "left join users as us on us.id = b.user_id " +
-            "left join items as it on it.id = b.item_id " +
-            "where us.id = ?1 " +
-            "and b.start_time < ?2 and b.end_time > ?3 " +
-            "order by b.start_time asc", nativeQuery = true)
-    List<Booking> findAllCurrentBookingsByBookerId(Long userId, LocalDateTime now1, LocalDateTime now2, Pageable pageable);
-    //List<Booking> findAllByBookerIdAndStartBeforeAndEndAfterOrderByStartAsc(Long userId, LocalDateTime now1, LocalDateTime now2);
-
-    List<Booking> findAllByBookerIdAndEndBeforeOrderByStartDesc(Long userId, LocalDateTime now, Pageable pageable);
-
-    List<Booking> findAllByBookerIdAndStartAfterOrderByStartDesc(Long userId, LocalDateTime now, Pageable pageable);
-
-    List<Booking> findAllByBookerIdAndStatusOrderByStartDesc(Long userId, Status status, Pageable pageable);
-
-    List<Booking> findAllByItemOwnerIdOrderByStartDesc(Long userId, Pageable pageable);
-
-    @Query("select b " +
-            "from Booking as b " +
-            "join b.booker as u " +
-            "join b.item as it " +
-            "join it.owner as own " +
-            "where own.id = ?1 " +
-            "and b.start < ?2 and b.end > ?3 " +
-            "order by b.start desc")
-    List<Booking> findAllByItemOwnerId(Long userId, LocalDateTime now1, LocalDateTime now2, Pageable pageable);
-    //List<Booking> findAllByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(Long userId, LocalDateTime now1, LocalDateTime now2);
-
-    List<Booking> findAllByItemOwnerIdAndEndBeforeOrderByStartDesc(Long userId, LocalDateTime now, Pageable pageable);
-
-    List<Booking> findAllByItemOwnerIdAndStartAfterOrderByStartDesc(Long userId, LocalDateTime now, Pageable pageable);
-
-    List<Booking> findAllByItemOwnerIdAndStatusOrderByStartDesc(Long userId, Status status, Pageable pageable);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from Booking b where b.id = ?1")
+    Optional<Booking> findWithLockById(Long bookingId);
 
     List<Booking> findByItemIdAndBookerIdAndStatusAndEndBefore(Long itemId, Long userId, Status status, LocalDateTime now);
 
-    List<Booking> findAllByItemIdIn(List<Long> itemIdList);
-
-    List<Booking> findAllByItemId(Long itemId);
+    @Query(value = "select b.id, b.item_id, b.user_id, b.start_time, b.end_time, b.status " +
+            "from (select bk.*, " +
+            "row_number() over (partition by bk.item_id, case when bk.start_time < ?2 then 0 else 1 end " +
+            "order by bk.start_time desc) as last_rank, " +
+            "row_number() over (partition by bk.item_id, case when bk.start_time < ?2 then 0 else 1 end " +
+            "order by bk.start_time asc) as next_rank " +
+            "from bookings as bk " +
+            "where bk.item_id in (?1) and bk.status <> 'REJECTED' and bk.start_time <> ?2) as b " +
+            "where (b.start_time < ?2 and b.last_rank = 1) " +
+            "or (b.start_time > ?2 and b.next_rank = 1)", nativeQuery = true)
+    List<Booking> findLastAndNextByItemIdIn(List<Long> itemIdList, LocalDateTime now);
+
+    List<Booking> findAllByItemIdAndStatusNotAndStartBeforeAndEndAfterOrderByStartAsc(Long itemId, Status status,
+                                                                                    LocalDateTime to, LocalDateTime from);
+
+    Optional<Booking> findFirstByItemIdAndStatusInAndStartBeforeOrderByStartDesc(Long itemId, List<Status> statuses, LocalDateTime end);
 
 }
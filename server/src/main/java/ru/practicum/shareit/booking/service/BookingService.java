@@ -1,6 +1,7 @@
 package ru.practicum.shareit.booking.service;
 
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPage;
 
 import java.util.List;
 
@@ -15,5 +16,9 @@ public interface BookingService {
 
     List<BookingDto> getAllBookingsByOwnerId(Long userId, String state, Integer from, Integer size);
 
+    BookingPage getAllBookingsByUserId(Long userId, String state, String cursor, Integer size);
+
+    BookingPage getAllBookingsByOwnerId(Long userId, String state, String cursor, Integer size);
+
 
 }
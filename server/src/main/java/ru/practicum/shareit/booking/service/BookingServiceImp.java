@@ -1,10 +1,11 @@
 package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPage;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.State;
@@ -13,29 +14,32 @@ import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.*;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemBookingPointerService;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserLookup;
 
-import javax.transaction.Transactional;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class BookingServiceImp implements BookingService {
+    private static final List<Status> ACTIVE_STATUSES = List.of(Status.WAITING, Status.APPROVED);
+
     private final BookingRepository bookingRepository;
     private final ItemRepository itemRepository;
-    private final UserRepository userRepository;
+    private final UserLookup userLookup;
     private final ItemService itemService;
+    private final ItemBookingPointerService itemBookingPointerService;
 
     @Transactional
     @Override
     public BookingDto createBooking(BookingDto bookingDto, Long userId) {
         Booking booking = BookingMapper.makeToBooking(bookingDto);
-        User user = userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException("User ID: " + userId + " not found"));
-        Item item = itemRepository.findById(bookingDto.getItemId()).orElseThrow(() -> new ItemNotFoundException("Item ID: " + bookingDto.getItemId() + " not found"));
+        User user = userLookup.getUser(userId);
+        Item item = itemRepository.findWithLockById(bookingDto.getItemId()).orElseThrow(() -> new ItemNotFoundException("Item ID: " + bookingDto.getItemId() + " not found"));
         if (item.getOwner().getId().equals(userId)) {
             throw new BookingNotFoundException("Owner cannot book his Item");
         }
@@ -43,19 +47,26 @@ public class BookingServiceImp implements BookingService {
                 || bookingDto.getEnd().equals(bookingDto.getStart())) {
             throw new BookingNotAvailableException("Not available for booking");
         }
+        if (isOverlapping(item.getId(), bookingDto.getStart(), bookingDto.getEnd())) {
+            throw new BookingNotAvailableException("Item is already booked for these dates");
+        }
         booking.setBooker(user);
         booking.setItem(item);
         booking.setStatus(Status.WAITING);
         booking = bookingRepository.save(booking);
+        itemBookingPointerService.refresh(item.getId());
         return BookingMapper.makeToDto(booking);
     }
 
     @Transactional
     @Override
     public BookingDto approveBooking(Long bookingId, Long userId, Boolean approved) {
-        Booking bookingFromBd = bookingRepository.findById(bookingId).orElseThrow(() ->
+        Booking bookingFromBd = bookingRepository.findWithLockById(bookingId).orElseThrow(() ->
                 new BookingNotFoundException("Booking ID " + bookingId + " not found"));
-        itemService.checkOwnerOfItem(bookingFromBd.getItem().getId(), userId, "The Booking can only be confirmed by the owner");
+        Long itemId = bookingFromBd.getItem().getId();
+        itemService.checkOwnerOfItem(itemId, userId, "The Booking can only be confirmed by the owner");
+        // pointers are written under the item lock, as in createBooking
+        itemRepository.findWithLockById(itemId).orElseThrow(() -> new ItemNotFoundException("Item ID: " + itemId + " not found"));
 
         if (!bookingFromBd.getStatus().equals(Status.WAITING)) {
             throw new IllegalOperationException("Status was confirmed by the owner earlier");
@@ -66,6 +77,7 @@ public class BookingServiceImp implements BookingService {
             bookingFromBd.setStatus(Status.REJECTED);
         }
         bookingFromBd = bookingRepository.save(bookingFromBd);
+        itemBookingPointerService.refresh(itemId);
         return BookingMapper.makeToDto(bookingFromBd);
     }
 
@@ -82,63 +94,72 @@ public class BookingServiceImp implements BookingService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<BookingDto> getAllBookingsByUserId(Long userId, String state, Integer from, Integer size) {
-        Pageable pageable = PageRequest.of(from / size, size);
-        User user = userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException("User ID: " + userId + " not found"));
-        LocalDateTime now = LocalDateTime.now();
-        List<Booking> bookingList;
-        switch (checkState(state)) {
-            case CURRENT:
-                bookingList = bookingRepository.findAllCurrentBookingsByBookerId(userId, now, now, pageable);
-                break;
-            case PAST:
-                bookingList = bookingRepository.findAllByBookerIdAndEndBeforeOrderByStartDesc(userId, now, pageable);
-                break;
-            case FUTURE:
-                bookingList = bookingRepository.findAllByBookerIdAndStartAfterOrderByStartDesc(userId, now, pageable);
-                break;
-            case WAITING:
-                bookingList = bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(userId, Status.WAITING, pageable);
-                break;
-            case REJECTED:
-                bookingList = bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(userId, Status.REJECTED, pageable);
-                break;
-            default:
-                bookingList = bookingRepository.findAllByBookerIdOrderByStartDesc(userId, pageable);
-        }
-        return bookingList.stream()
-                .map(booking -> BookingMapper.makeToDto(booking))
-                .collect(Collectors.toList());
+        return getBookingList(userId, false, state, from, size);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<BookingDto> getAllBookingsByOwnerId(Long userId, String state, Integer from, Integer size) {
-        Pageable pageable = PageRequest.of(from / size, size);
-        User user = userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException("User ID: " + userId + " not found"));
-        LocalDateTime now = LocalDateTime.now();
-        List<Booking> bookingList;
-        switch (checkState(state)) {
-            case CURRENT:
-                bookingList = bookingRepository.findAllByItemOwnerId(userId, now, now, pageable);
-                break;
-            case PAST:
-                bookingList = bookingRepository.findAllByItemOwnerIdAndEndBeforeOrderByStartDesc(userId, now, pageable);
-                break;
-            case FUTURE:
-                bookingList = bookingRepository.findAllByItemOwnerIdAndStartAfterOrderByStartDesc(userId, now, pageable);
-                break;
-            case WAITING:
-                bookingList = bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(userId, Status.WAITING, pageable);
-                break;
-            case REJECTED:
-                bookingList = bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(userId, Status.REJECTED, pageable);
-                break;
-            default:
-                bookingList = bookingRepository.findAllByItemOwnerIdOrderByStartDesc(userId, pageable);
+        return getBookingList(userId, true, state, from, size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BookingPage getAllBookingsByUserId(Long userId, String state, String cursor, Integer size) {
+        return getBookingPage(userId, false, state, cursor, size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BookingPage getAllBookingsByOwnerId(Long userId, String state, String cursor, Integer size) {
+        return getBookingPage(userId, true, state, cursor, size);
+    }
+
+    // offset is computed the same way as PageRequest.of(from / size, size)
+    private List<BookingDto> getBookingList(Long userId, boolean owner, String state, Integer from, Integer size) {
+        checkSize(size);
+        if (from == null || from < 0) {
+            throw new IllegalOperationException("From should not be negative: " + from);
+        }
+        userLookup.getUser(userId);
+        long offset = (long) (from / size) * size;
+        return bookingRepository.findPage(userId, owner, checkState(state), LocalDateTime.now(), null, offset, size);
+    }
+
+    private BookingPage getBookingPage(Long userId, boolean owner, String state, String cursor, Integer size) {
+        checkSize(size);
+        userLookup.getUser(userId);
+        State stateCase = checkState(state);
+        BookingCursor after;
+        try {
+            after = cursor.isBlank() ? null : BookingCursor.decode(cursor);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalOperationException("Invalid cursor: " + cursor);
+        }
+        List<BookingDto> bookingList = bookingRepository.findPage(userId, owner, stateCase, LocalDateTime.now(), after, 0, size);
+        String nextCursor = bookingList.size() < size ? null
+                : BookingCursor.after(bookingList.get(bookingList.size() - 1)).encode();
+        return new BookingPage(bookingList, nextCursor);
+    }
+
+    /**
+     * Active bookings of an item never overlap, so ordered by start they are ordered by end too:
+     * only the latest one starting before {@code end} can reach into {@code [start, end)}.
+     * Callers hold the item row lock, which keeps the check and the insert atomic.
+     */
+    private boolean isOverlapping(Long itemId, LocalDateTime start, LocalDateTime end) {
+        return bookingRepository.findFirstByItemIdAndStatusInAndStartBeforeOrderByStartDesc(itemId, ACTIVE_STATUSES, end)
+                .map(booking -> booking.getEnd().isAfter(start))
+                .orElse(false);
+    }
+
+    // the gateway checks paging too, but the server is also called directly
+    private static void checkSize(Integer size) {
+        if (size == null || size <= 0) {
+            throw new IllegalOperationException("Size should be positive: " + size);
         }
-        return bookingList.stream()
-                .map(booking -> BookingMapper.makeToDto(booking))
-                .collect(Collectors.toList());
     }
 
     public State checkState(String state) {
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Cache;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+
+import javax.persistence.EntityManagerFactory;
+
+@Component
+@RequiredArgsConstructor
+public class SecondLevelCache {
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Items and requests of a deleted user go away by ON DELETE CASCADE, which Hibernate does not see.
+     * Evicted once more when the current transaction is over, as the rows are gone only after commit.
+     */
+    public void evictUserData() {
+        evictItemsAndRequests();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evictItemsAndRequests();
+                }
+            });
+        }
+    }
+
+    private void evictItemsAndRequests() {
+        Cache cache = entityManagerFactory.getCache().unwrap(Cache.class);
+        cache.evictEntityData(Item.class);
+        cache.evictEntityData(ItemRequest.class);
+        cache.evictQueryRegions();
+    }
+}
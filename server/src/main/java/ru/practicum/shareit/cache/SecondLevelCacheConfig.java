@@ -0,0 +1,30 @@
+package ru.practicum.shareit.cache;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.util.UUID;
+
+@Configuration
+public class SecondLevelCacheConfig {
+
+    /**
+     * Every session factory gets its own cache manager: the provider shares managers by URI,
+     * and two application contexts in one JVM (as in tests) must not see each other's regions.
+     * Hibernate closes the manager together with the session factory.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheManager() {
+        return properties -> {
+            CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+            properties.put(ConfigSettings.CACHE_MANAGER,
+                    provider.getCacheManager(URI.create("shareit:" + UUID.randomUUID()), getClass().getClassLoader()));
+        };
+    }
+}
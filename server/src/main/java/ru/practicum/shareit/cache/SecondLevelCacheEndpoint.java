@@ -0,0 +1,47 @@
+package ru.practicum.shareit.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * {@code GET /actuator/hibernatecache}: hits, misses, puts and size of every second-level cache region.
+ * Present only when Hibernate statistics are collected, as in the debug profile.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.jpa.properties.hibernate.generate_statistics", havingValue = "true")
+@Endpoint(id = "hibernatecache")
+@RequiredArgsConstructor
+public class SecondLevelCacheEndpoint {
+    private final EntityManagerFactory entityManagerFactory;
+
+    @ReadOperation
+    public Map<String, Map<String, Long>> regions() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Map<String, Map<String, Long>> regions = new LinkedHashMap<>();
+        for (String regionName : new TreeSet<>(Arrays.asList(statistics.getSecondLevelCacheRegionNames()))) {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(regionName);
+            if (region == null) {
+                continue;
+            }
+            Map<String, Long> values = new LinkedHashMap<>();
+            values.put("hits", region.getHitCount());
+            values.put("misses", region.getMissCount());
+            values.put("puts", region.getPutCount());
+            values.put("size", region.getElementCountInMemory());
+            regions.put(regionName, values);
+        }
+        return regions;
+    }
+}
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.sql.DriverManager;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs server requests on virtual threads when {@code shareit.virtual-threads.enabled=true}. Requests
+ * block on JDBC, so their number is then bounded by the Hikari pool instead of Tomcat threads. That needs
+ * pgjdbc 42.6 or later: older drivers lock with {@code synchronized} and pin the carrier thread while a
+ * query runs, and are reported on startup. {@code VirtualThreadsJdbcBenchmark} measures the effect.
+ * Startup fails before Java 21.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit.virtual-threads.enabled", havingValue = "true")
+@Slf4j
+public class VirtualThreadsConfig {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadsProtocolHandlerCustomizer() {
+        ExecutorService executor = newVirtualThreadPerTaskExecutor();
+        warnIfPinningDriver();
+        log.info("Tomcat requests run on virtual threads");
+        return protocolHandler -> protocolHandler.setExecutor(executor);
+    }
+
+    private static void warnIfPinningDriver() {
+        DriverManager.drivers()
+                .filter(driver -> driver.getClass().getName().equals("org.postgresql.Driver"))
+                .filter(driver -> driver.getMajorVersion() < 42 || driver.getMajorVersion() == 42 && driver.getMinorVersion() < 6)
+                .findFirst()
+                .ifPresent(driver -> log.warn("pgjdbc {}.{} pins virtual threads while a query runs, use 42.6 or later",
+                        driver.getMajorVersion(), driver.getMinorVersion()));
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("shareit.virtual-threads.enabled needs Java 21 or later, running on "
+                    + Runtime.version(), e);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create a virtual thread executor", e);
+        }
+    }
+}
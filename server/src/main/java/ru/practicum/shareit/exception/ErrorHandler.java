@@ -2,16 +2,25 @@ package ru.practicum.shareit.exception;
 
 import lombok.extern.slf4j.Slf4j;
 import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.MissingRequestHeaderException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import java.util.Locale;
+
 @Slf4j
 @RestControllerAdvice
 public class ErrorHandler {
+    // the exclusion constraint of schema-postgresql.sql behind the overlap check of BookingServiceImp
+    private static final String BOOKING_OVERLAP_CONSTRAINT = "excl_bookings_item_period";
+    // the unique constraint on users.email in schema.sql
+    private static final String USER_EMAIL_CONSTRAINT = "uq_user_email";
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.NOT_FOUND)
     public ErrorResponse handlerUserNotFoundException(UserNotFoundException exception) {
@@ -76,10 +85,34 @@ public class ErrorHandler {
     }
 
     @ExceptionHandler(ConstraintViolationException.class)
-    @ResponseStatus(HttpStatus.CONFLICT)
-    public ErrorResponse handleConstraintViolationException(ConstraintViolationException exception) {
-        log.info("Validation error: {}", exception.getMessage());
-        return new ErrorResponse("Email already exists");
+    public ResponseEntity<ErrorResponse> handleConstraintViolationException(ConstraintViolationException exception) {
+        return handleConstraintViolation(exception.getConstraintName(), String.valueOf(exception.getSQLException().getMessage()));
+    }
+
+    // a booking that raced past the overlap check is stopped by the constraint and answered like the check
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ErrorResponse> handleDataIntegrityViolationException(DataIntegrityViolationException exception) {
+        String constraintName = exception.getCause() instanceof ConstraintViolationException
+                ? ((ConstraintViolationException) exception.getCause()).getConstraintName() : null;
+        return handleConstraintViolation(constraintName, String.valueOf(exception.getMostSpecificCause().getMessage()));
+    }
+
+    // the dialect does not extract every constraint name (none for exclusion constraints), so the message is checked too
+    private ResponseEntity<ErrorResponse> handleConstraintViolation(String constraintName, String cause) {
+        String violated = (constraintName + " " + cause).toLowerCase(Locale.ROOT);
+        if (violated.contains(BOOKING_OVERLAP_CONSTRAINT)) {
+            log.error(cause);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ErrorResponse("Item is already booked for these dates"));
+        }
+        if (violated.contains(USER_EMAIL_CONSTRAINT)) {
+            log.info("Validation error: {}", cause);
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(new ErrorResponse("Email already exists"));
+        }
+        log.error("Constraint violation: {}", cause);
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(new ErrorResponse("Data integrity violation"));
     }
 
 /*    @ExceptionHandler(javax.validation.ConstraintViolationException.class)
@@ -2,12 +2,15 @@ package ru.practicum.shareit.item;
 
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.IntervalDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoWithBookingsAndComments;
 import ru.practicum.shareit.item.service.ItemService;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -62,6 +65,21 @@ public class ItemController {
         return itemService.searchItem(text, from, size);
     }
 
+    @GetMapping("/search/suggest")
+    public List<String> suggestItemNames(@RequestParam String prefix,
+                                         @RequestParam(defaultValue = "10") Integer size) {
+        log.info("Suggest item names by prefix: {}", prefix);
+        return itemService.suggestItemNames(prefix, size);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public List<IntervalDto> getAvailability(@PathVariable Long itemId,
+                                             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("Get availability of Item ID {} from {} to {}", itemId, from, to);
+        return itemService.getAvailability(itemId, from, to);
+    }
+
     @PostMapping("/{itemId}/comment")
     public CommentDto postComment(@RequestHeader("X-Sharer-User-Id") Long userId,
                                   @PathVariable Long itemId,
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.item.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.booking.model.Booking;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Denormalized last/next booking of an item. {@code nextStart} is the moment the pointers
+ * go stale: once the next booking has started it becomes the last one.
+ */
+@Entity
+@Table(name = "item_booking_pointers")
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemBookingPointer {
+    @Id
+    @Column(name = "item_id")
+    private Long itemId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "last_booking_id")
+    private Booking lastBooking;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "next_booking_id")
+    private Booking nextBooking;
+
+    @Column(name = "next_start")
+    private LocalDateTime nextStart;
+}
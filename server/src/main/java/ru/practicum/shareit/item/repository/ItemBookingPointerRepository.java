@@ -0,0 +1,22 @@
+package ru.practicum.shareit.item.repository;
+
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.item.model.ItemBookingPointer;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface ItemBookingPointerRepository extends JpaRepository<ItemBookingPointer, Long> {
+    @EntityGraph(attributePaths = {"lastBooking", "nextBooking"})
+    Optional<ItemBookingPointer> findByItemId(Long itemId);
+
+    @Query("select p.itemId from ItemBookingPointer as p where p.nextStart <= ?1")
+    List<Long> findItemIdsDueAt(LocalDateTime now);
+
+    @Query("select p.itemId from ItemBookingPointer as p left join p.lastBooking as l left join p.nextBooking as n " +
+            "where l.booker.id = ?1 or n.booker.id = ?1")
+    List<Long> findItemIdsByBookerId(Long bookerId);
+}
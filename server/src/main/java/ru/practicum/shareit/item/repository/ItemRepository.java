@@ -2,22 +2,54 @@ package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
-    @Query("select i from Item i " +
+    @Transactional(readOnly = true)
+    @Query("select new ru.practicum.shareit.item.dto.ItemDto(i.id, i.name, i.description, i.available, r.id) " +
+            "from Item i left join i.request r " +
             "where upper(i.name) like upper(concat('%', ?1,'%'))" +
             "or upper(i.description) like upper(concat('%', ?1,'%'))" +
             "and i.available = true")
-    List<Item> searchItem(String text, Pageable pageable);
+    List<ItemDto> searchItem(String text, Pageable pageable);
+
+    @Transactional(readOnly = true)
+    @Query(value = "select * from items as i " +
+            "where i.name ilike '%' || ?1 || '%' " +
+            "or i.description ilike '%' || ?1 || '%' " +
+            "and i.available = true", nativeQuery = true)
+    List<Item> searchItemIndexed(String text, Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.id = ?1")
+    Optional<Item> findWithLockById(Long itemId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.id in ?1 order by i.id")
+    List<Item> findAllWithLockByIdIn(List<Long> itemIds);
 
     List<Item> findAllByOwnerId(Long userId, Pageable pageable);
 
-    List<Item> findAllByRequestIdIn(List<Long> listRequestId);
+    @QueryHints(@QueryHint(name = org.hibernate.annotations.QueryHints.CACHEABLE, value = "true"))
+    @Query("select new ru.practicum.shareit.item.dto.ItemDto(i.id, i.name, i.description, i.available, r.id) " +
+            "from Item i join i.request r " +
+            "where r.id in ?1")
+    List<ItemDto> findAllDtoByRequestIdIn(List<Long> listRequestId);
 
     List<Item> findAllByRequestId(Long userId);
+
+    // removed with the user by ON DELETE CASCADE: their own items and the items answering their requests
+    @Query("select i.id from Item i left join i.request r where i.owner.id = ?1 or r.requestor.id = ?1")
+    List<Long> findIdsByOwnerIdOrRequestorId(Long userId);
 }
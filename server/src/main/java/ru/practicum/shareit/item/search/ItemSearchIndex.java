@@ -0,0 +1,307 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * In-memory trigram index over item names and descriptions.
+ * Answers the same question as {@code ItemRepository.searchItem} without a DB round-trip:
+ * every trigram of the search text must be present in the item, candidates are then
+ * checked against the original LIKE predicate and returned in id order,
+ * or by BM25F relevance for {@link #searchRanked}.
+ */
+@Component
+public class ItemSearchIndex {
+    private static final int GRAM = 3;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double NAME_WEIGHT = 3.0;
+    private static final double DESCRIPTION_WEIGHT = 1.0;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private NavigableMap<Long, Entry> entries = new TreeMap<>();
+    private Map<String, NavigableSet<Long>> postings = new HashMap<>();
+    private long nameTokens;
+    private long descriptionTokens;
+    // changes made while a replacement is being built, replayed onto it before the swap
+    private List<Consumer<ItemSearchIndex>> pending;
+
+    public void put(Item item) {
+        Entry entry = new Entry(ItemMapper.makeToDto(item));
+        lock.writeLock().lock();
+        try {
+            record(index -> index.put(item));
+            removeEntry(item.getId());
+            entries.put(item.getId(), entry);
+            nameTokens += entry.nameLength;
+            descriptionTokens += entry.descriptionLength;
+            for (String gram : entry.grams) {
+                postings.computeIfAbsent(gram, key -> new TreeSet<>()).add(item.getId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long itemId) {
+        lock.writeLock().lock();
+        try {
+            record(index -> index.remove(itemId));
+            removeEntry(itemId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeAll(Collection<Long> itemIds) {
+        lock.writeLock().lock();
+        try {
+            record(index -> index.removeAll(itemIds));
+            itemIds.forEach(this::removeEntry);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Starts recording changes for {@link #replaceWith}: a replacement built from the database
+     * may have read a row before a change to it was committed.
+     */
+    public void beginRebuild() {
+        lock.writeLock().lock();
+        try {
+            pending = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Applies the changes recorded since {@link #beginRebuild} to {@code rebuilt} and then serves
+     * from its contents. Searches see either the old contents or the new ones, never a partial load.
+     */
+    public void replaceWith(ItemSearchIndex rebuilt) {
+        lock.writeLock().lock();
+        try {
+            if (pending != null) {
+                pending.forEach(change -> change.accept(rebuilt));
+                pending = null;
+            }
+            entries = rebuilt.entries;
+            postings = rebuilt.postings;
+            nameTokens = rebuilt.nameTokens;
+            descriptionTokens = rebuilt.descriptionTokens;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Offset is computed the same way as {@code PageRequest.of(from / size, size)}.
+     */
+    public List<ItemDto> search(String text, Integer from, Integer size) {
+        String query = normalize(text);
+        long offset = (long) (from / size) * size;
+        List<ItemDto> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            long skipped = 0;
+            for (Long itemId : candidates(query)) {
+                Entry entry = entries.get(itemId);
+                if (!entry.matches(query)) {
+                    continue;
+                }
+                if (skipped++ < offset) {
+                    continue;
+                }
+                result.add(entry.item);
+                if (result.size() == size) {
+                    break;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    /**
+     * Same matches as {@link #search}, ordered by BM25F score with name occurrences weighted
+     * above description ones. The whole text is one phrase, as in the LIKE query, so its IDF is
+     * the same for every match and is left out. Only the best {@code offset + size} matches are
+     * kept in a bounded heap, so deep pages never sort the full match set; the depth a caller
+     * may page to is capped by {@code shareit.search.ranked-max-depth}, which bounds the heap.
+     */
+    public List<ItemDto> searchRanked(String text, Integer from, Integer size) {
+        String query = normalize(text);
+        long offset = (long) (from / size) * size;
+        PriorityQueue<Scored> heap = new PriorityQueue<>(Comparator.reverseOrder());
+        lock.readLock().lock();
+        try {
+            if (offset >= entries.size()) {
+                return Collections.emptyList();
+            }
+            long limit = offset + size;
+            double avgName = entries.isEmpty() ? 1 : Math.max(1, (double) nameTokens / entries.size());
+            double avgDescription = entries.isEmpty() ? 1 : Math.max(1, (double) descriptionTokens / entries.size());
+            for (Long itemId : candidates(query)) {
+                Entry entry = entries.get(itemId);
+                if (!entry.matches(query)) {
+                    continue;
+                }
+                Scored scored = new Scored(entry.item, entry.score(query, avgName, avgDescription));
+                if (heap.size() < limit) {
+                    heap.add(scored);
+                } else if (scored.compareTo(heap.peek()) < 0) {
+                    heap.poll();
+                    heap.add(scored);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<Scored> ranked = new ArrayList<>(heap);
+        Collections.sort(ranked);
+        List<ItemDto> result = new ArrayList<>();
+        for (int i = (int) offset; i < ranked.size(); i++) {
+            result.add(ranked.get(i).item);
+        }
+        return result;
+    }
+
+    private Collection<Long> candidates(String query) {
+        Set<String> grams = grams(query);
+        if (grams.isEmpty()) {
+            return entries.keySet();
+        }
+        List<NavigableSet<Long>> lists = new ArrayList<>();
+        for (String gram : grams) {
+            NavigableSet<Long> list = postings.get(gram);
+            if (list == null) {
+                return Collections.emptyList();
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+        NavigableSet<Long> smallest = lists.get(0);
+        List<NavigableSet<Long>> others = lists.subList(1, lists.size());
+        List<Long> result = new ArrayList<>();
+        for (Long itemId : smallest) {
+            if (others.stream().allMatch(list -> list.contains(itemId))) {
+                result.add(itemId);
+            }
+        }
+        return result;
+    }
+
+    private void record(Consumer<ItemSearchIndex> change) {
+        if (pending != null) {
+            pending.add(change);
+        }
+    }
+
+    private void removeEntry(Long itemId) {
+        Entry entry = entries.remove(itemId);
+        if (entry == null) {
+            return;
+        }
+        nameTokens -= entry.nameLength;
+        descriptionTokens -= entry.descriptionLength;
+        for (String gram : entry.grams) {
+            NavigableSet<Long> list = postings.get(gram);
+            list.remove(itemId);
+            if (list.isEmpty()) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    static String normalize(String text) {
+        return text == null ? "" : text.toUpperCase(Locale.ROOT);
+    }
+
+    static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    static int tokens(String text) {
+        String stripped = text.strip();
+        return stripped.isEmpty() ? 0 : stripped.split("\\s+").length;
+    }
+
+    static int occurrences(String text, String query) {
+        int count = 0;
+        for (int i = text.indexOf(query); i >= 0; i = text.indexOf(query, i + query.length())) {
+            count++;
+        }
+        return count;
+    }
+
+    private static class Entry {
+        private final ItemDto item;
+        private final String name;
+        private final String description;
+        private final Set<String> grams;
+        private final int nameLength;
+        private final int descriptionLength;
+
+        Entry(ItemDto item) {
+            this.item = item;
+            this.name = normalize(item.getName());
+            this.description = normalize(item.getDescription());
+            this.grams = grams(name);
+            this.grams.addAll(grams(description));
+            this.nameLength = tokens(name);
+            this.descriptionLength = tokens(description);
+        }
+
+        // mirrors the JPQL predicate: name like %text% or (description like %text% and available = true)
+        boolean matches(String query) {
+            return name.contains(query)
+                    || description.contains(query) && Boolean.TRUE.equals(item.getAvailable());
+        }
+
+        double score(String query, double avgName, double avgDescription) {
+            double tf = NAME_WEIGHT * occurrences(name, query) / (1 - B + B * nameLength / avgName)
+                    + DESCRIPTION_WEIGHT * occurrences(description, query) / (1 - B + B * descriptionLength / avgDescription);
+            return tf * (K1 + 1) / (tf + K1);
+        }
+    }
+
+    // natural order is best first: higher score, then lower id
+    private static class Scored implements Comparable<Scored> {
+        private final ItemDto item;
+        private final double score;
+
+        Scored(ItemDto item, double score) {
+            this.item = item;
+            this.score = score;
+        }
+
+        @Override
+        public int compareTo(Scored other) {
+            int byScore = Double.compare(other.score, score);
+            return byScore != 0 ? byScore : Long.compare(item.getId(), other.item.getId());
+        }
+    }
+}
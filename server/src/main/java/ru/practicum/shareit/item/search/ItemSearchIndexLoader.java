@@ -0,0 +1,76 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+/**
+ * Loads the in-memory indexes while the context starts, before the web server accepts
+ * requests, so search is never served from a partly loaded index. The items are read into
+ * fresh indexes that replace the live ones in one step.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ItemSearchIndexLoader implements SmartLifecycle {
+    private static final int BATCH_SIZE = 1000;
+    // the web server starts in phase Integer.MAX_VALUE - 1
+    private static final int PHASE = 0;
+
+    private final ItemRepository itemRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemSuggestIndex itemSuggestIndex;
+    private final ItemSearchProperties itemSearchProperties;
+    private volatile boolean running;
+
+    @Override
+    public void start() {
+        load();
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    public void load() {
+        boolean memoryMode = itemSearchProperties.getMode().isInMemory();
+        ItemSearchIndex searchIndex = new ItemSearchIndex();
+        ItemSuggestIndex suggestIndex = new ItemSuggestIndex(itemSearchProperties);
+        itemSearchIndex.beginRebuild();
+        itemSuggestIndex.beginRebuild();
+        Pageable pageable = PageRequest.of(0, BATCH_SIZE, Sort.by("id"));
+        Page<Item> page;
+        do {
+            page = itemRepository.findAll(pageable);
+            for (Item item : page) {
+                if (memoryMode) {
+                    searchIndex.put(item);
+                }
+                suggestIndex.put(item);
+            }
+            pageable = page.nextPageable();
+        } while (page.hasNext());
+        itemSearchIndex.replaceWith(searchIndex);
+        itemSuggestIndex.replaceWith(suggestIndex);
+        log.info("Item search indexes loaded: {} items", page.getTotalElements());
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "shareit.search")
+@Data
+public class ItemSearchProperties {
+    private SearchMode mode = SearchMode.LIKE;
+    private int rankedMaxDepth = 10_000;
+    private Suggest suggest = new Suggest();
+
+    @Data
+    public static class Suggest {
+        private int maxNames = 100_000;
+        private int maxResults = 20;
+    }
+}
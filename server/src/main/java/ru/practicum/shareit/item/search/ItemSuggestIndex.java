@@ -0,0 +1,228 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Trie over the names of available items for search-as-you-type suggestions.
+ * Names are matched case-insensitively and ranked by the number of available items carrying
+ * them, ties in alphabetical order; every node keeps the highest count below it, so the best
+ * names are found without walking the whole subtree of a short prefix. The number of distinct
+ * names kept in memory is capped by {@code shareit.search.suggest.max-names}.
+ */
+@Component
+@Slf4j
+public class ItemSuggestIndex {
+    private final int maxNames;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Node root = new Node();
+    // item id to the key of its name
+    private Map<Long, String> entries = new HashMap<>();
+    private int names;
+    // changes made while a replacement is being built, replayed onto it before the swap
+    private List<Consumer<ItemSuggestIndex>> pending;
+
+    public ItemSuggestIndex(ItemSearchProperties itemSearchProperties) {
+        this.maxNames = itemSearchProperties.getSuggest().getMaxNames();
+    }
+
+    public void put(Item item) {
+        lock.writeLock().lock();
+        try {
+            record(index -> index.put(item));
+            removeEntry(item.getId());
+            if (!Boolean.TRUE.equals(item.getAvailable()) || item.getName() == null || item.getName().isBlank()) {
+                return;
+            }
+            String name = item.getName().strip();
+            String key = normalize(name);
+            Node node = root;
+            List<Node> path = new ArrayList<>();
+            path.add(node);
+            for (int i = 0; i < key.length(); i++) {
+                Node child = node.children.get(key.charAt(i));
+                if (child == null) {
+                    if (names >= maxNames) {
+                        log.warn("Suggest index is full ({} names), item ID {} is not indexed", maxNames, item.getId());
+                        return;
+                    }
+                    child = new Node();
+                    node.children.put(key.charAt(i), child);
+                }
+                node = child;
+                path.add(node);
+            }
+            if (node.count == 0) {
+                if (names >= maxNames) {
+                    log.warn("Suggest index is full ({} names), item ID {} is not indexed", maxNames, item.getId());
+                    return;
+                }
+                names++;
+                node.name = name;
+            }
+            node.count++;
+            for (Node step : path) {
+                step.best = Math.max(step.best, node.count);
+            }
+            entries.put(item.getId(), key);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long itemId) {
+        lock.writeLock().lock();
+        try {
+            record(index -> index.remove(itemId));
+            removeEntry(itemId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeAll(Collection<Long> itemIds) {
+        lock.writeLock().lock();
+        try {
+            record(index -> index.removeAll(itemIds));
+            itemIds.forEach(this::removeEntry);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Starts recording changes for {@link #replaceWith}, see {@link ItemSearchIndex#beginRebuild}.
+     */
+    public void beginRebuild() {
+        lock.writeLock().lock();
+        try {
+            pending = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void replaceWith(ItemSuggestIndex rebuilt) {
+        lock.writeLock().lock();
+        try {
+            if (pending != null) {
+                pending.forEach(change -> change.accept(rebuilt));
+                pending = null;
+            }
+            root = rebuilt.root;
+            entries = rebuilt.entries;
+            names = rebuilt.names;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<String> suggest(String prefix, int limit) {
+        String key = normalize(prefix.strip());
+        List<String> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < key.length() && node != null; i++) {
+                node = node.children.get(key.charAt(i));
+            }
+            if (node != null) {
+                collect(node, key, result, limit);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    // best-first walk: a subtree is opened only when its best count can still make the result
+    private void collect(Node start, String key, List<String> result, int limit) {
+        Queue<Candidate> candidates = new PriorityQueue<>(Candidate.ORDER);
+        candidates.add(new Candidate(key, start, start.best, false));
+        while (!candidates.isEmpty() && result.size() < limit) {
+            Candidate candidate = candidates.poll();
+            Node node = candidate.node;
+            if (candidate.named) {
+                result.add(node.name);
+                continue;
+            }
+            if (node.count > 0) {
+                candidates.add(new Candidate(candidate.key, node, node.count, true));
+            }
+            node.children.forEach((letter, child) ->
+                    candidates.add(new Candidate(candidate.key + letter, child, child.best, false)));
+        }
+    }
+
+    private void record(Consumer<ItemSuggestIndex> change) {
+        if (pending != null) {
+            pending.add(change);
+        }
+    }
+
+    private void removeEntry(Long itemId) {
+        String key = entries.remove(itemId);
+        if (key == null) {
+            return;
+        }
+        Deque<Node> path = new ArrayDeque<>();
+        Node node = root;
+        path.push(node);
+        for (int i = 0; i < key.length(); i++) {
+            node = node.children.get(key.charAt(i));
+            path.push(node);
+        }
+        if (--node.count == 0) {
+            node.name = null;
+            names--;
+        }
+        for (int i = key.length(); i >= 0; i--) {
+            Node current = path.pop();
+            if (i > 0 && current.count == 0 && current.children.isEmpty()) {
+                path.peek().children.remove(key.charAt(i - 1));
+                continue;
+            }
+            current.best = current.count;
+            for (Node child : current.children.values()) {
+                current.best = Math.max(current.best, child.best);
+            }
+        }
+    }
+
+    private static String normalize(String text) {
+        return text.toUpperCase(Locale.ROOT);
+    }
+
+    private static class Node {
+        private final NavigableMap<Character, Node> children = new TreeMap<>();
+        private String name;
+        private int count;
+        // the highest count of this node and the nodes below it
+        private int best;
+    }
+
+    private static class Candidate {
+        // by count, then by key: a subtree key precedes every name below it
+        private static final Comparator<Candidate> ORDER = Comparator
+                .comparingInt((Candidate candidate) -> candidate.rank).reversed()
+                .thenComparing(candidate -> candidate.key);
+
+        private final String key;
+        private final Node node;
+        private final int rank;
+        private final boolean named;
+
+        Candidate(String key, Node node, int rank, boolean named) {
+            this.key = key;
+            this.node = node;
+            this.rank = rank;
+            this.named = named;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.item.search;
+
+public enum SearchMode {
+    // ItemSearchIndex in the server's memory
+    MEMORY,
+    // ItemSearchIndex, best BM25F matches first
+    RANKED,
+    // upper(...) like '%text%' over the items table
+    LIKE,
+    // ilike '%text%' backed by pg_trgm GIN indexes (plain ilike on H2)
+    TRIGRAM;
+
+    public boolean isInMemory() {
+        return this == MEMORY || this == RANKED;
+    }
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.item.service;
+
+import ru.practicum.shareit.item.model.ItemBookingPointer;
+
+import java.util.List;
+
+public interface ItemBookingPointerService {
+    ItemBookingPointer getPointer(Long itemId);
+
+    void refresh(Long itemId);
+
+    List<Long> getItemIdsBookedBy(Long bookerId);
+
+    void refreshAll(List<Long> itemIds);
+
+    void refreshDue();
+}
@@ -0,0 +1,129 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingPointer;
+import ru.practicum.shareit.item.repository.ItemBookingPointerRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ItemBookingPointerServiceImp implements ItemBookingPointerService {
+    private final ItemBookingPointerRepository itemBookingPointerRepository;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+
+    /**
+     * Reads the stored pointers; for an item that has no row yet, or whose next booking has already
+     * started and the scheduler has not caught up with yet, they are resolved from the bookings
+     * without being stored. Rows are only written under the item row lock, by booking changes
+     * and by the scheduler, so reads never write and writers of one item take turns.
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public ItemBookingPointer getPointer(Long itemId) {
+        LocalDateTime now = LocalDateTime.now();
+        ItemBookingPointer pointer = itemBookingPointerRepository.findByItemId(itemId).orElse(null);
+        if (pointer == null || pointer.getNextStart() != null && !pointer.getNextStart().isAfter(now)) {
+            pointer = makePointers(List.of(itemId), now).get(0);
+        }
+        return pointer;
+    }
+
+    /**
+     * Callers hold the item row lock ({@code ItemRepository.findWithLockById}).
+     */
+    @Transactional
+    @Override
+    public void refresh(Long itemId) {
+        refresh(List.of(itemId), LocalDateTime.now());
+    }
+
+    /**
+     * Items whose stored pointers reference a booking of the user. Deleting the user deletes those
+     * bookings and leaves the pointers empty (ON DELETE SET NULL) until they are refreshed.
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public List<Long> getItemIdsBookedBy(Long bookerId) {
+        return itemBookingPointerRepository.findItemIdsByBookerId(bookerId);
+    }
+
+    /**
+     * Runs in its own transaction, as it is called after the commit of the one that deleted the bookings.
+     * Items deleted in the meantime are skipped.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Override
+    public void refreshAll(List<Long> itemIds) {
+        if (!itemIds.isEmpty()) {
+            refreshLocked(itemIds, LocalDateTime.now());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-pointers.refresh-delay:60000}")
+    @Transactional
+    @Override
+    public void refreshDue() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> dueIds = itemBookingPointerRepository.findItemIdsDueAt(now);
+        if (dueIds.isEmpty()) {
+            return;
+        }
+        int refreshed = refreshLocked(dueIds, now);
+        if (refreshed > 0) {
+            log.debug("Booking pointers moved forward for {} items", refreshed);
+        }
+    }
+
+    private int refreshLocked(List<Long> candidateIds, LocalDateTime now) {
+        // locked in id order, so the scheduler and booking changes do not deadlock on each other
+        List<Long> itemIds = itemRepository.findAllWithLockByIdIn(candidateIds).stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+        if (!itemIds.isEmpty()) {
+            refresh(itemIds, now);
+        }
+        return itemIds.size();
+    }
+
+    private void refresh(List<Long> itemIds, LocalDateTime now) {
+        itemBookingPointerRepository.saveAll(makePointers(itemIds, now));
+    }
+
+    private List<ItemBookingPointer> makePointers(List<Long> itemIds, LocalDateTime now) {
+        Map<Long, List<Booking>> bookingsByItem = bookingRepository.findLastAndNextByItemIdIn(itemIds, now).stream()
+                .collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
+        return itemIds.stream()
+                .map(itemId -> makePointer(itemId, bookingsByItem.getOrDefault(itemId, Collections.emptyList()), now))
+                .collect(Collectors.toList());
+    }
+
+    private ItemBookingPointer makePointer(Long itemId, List<Booking> bookingList, LocalDateTime now) {
+        ItemBookingPointer pointer = new ItemBookingPointer();
+        pointer.setItemId(itemId);
+        for (Booking booking : bookingList) {
+            if (booking.getStart().isBefore(now)) {
+                pointer.setLastBooking(booking);
+            } else {
+                pointer.setNextBooking(booking);
+                pointer.setNextStart(booking.getStart());
+            }
+        }
+        return pointer;
+    }
+}
@@ -1,10 +1,12 @@
 package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.IntervalDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoWithBookingsAndComments;
 import ru.practicum.shareit.item.model.Item;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
@@ -21,6 +23,10 @@ public interface ItemService {
 
     List<ItemDto> searchItem(String text, Integer from, Integer size);
 
+    List<String> suggestItemNames(String prefix, Integer size);
+
+    List<IntervalDto> getAvailability(Long itemId, LocalDateTime from, LocalDateTime to);
+
     void checkOwnerOfItem(Long itemId, Long userId, String expMessage);
 
     Item updateItemFields(Item updateItem);
@@ -4,6 +4,7 @@ import lombok.Data;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingDtoShort;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
@@ -11,42 +12,50 @@ import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.*;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.IntervalDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoWithBookingsAndComments;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingPointer;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.AfterCommit;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.search.ItemSearchProperties;
+import ru.practicum.shareit.item.search.ItemSuggestIndex;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserLookup;
 
-import javax.transaction.Transactional;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
 @Data
 public class ItemServiceImp implements ItemService {
     private final ItemRepository itemRepository;
-    private final UserRepository userRepository;
+    private final UserLookup userLookup;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository itemRequestRepository;
-
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemSearchProperties itemSearchProperties;
+    private final ItemSuggestIndex itemSuggestIndex;
+    private final ItemBookingPointerService itemBookingPointerService;
 
     @Transactional
     @Override
     public ItemDto createItem(ItemDto itemDto, Long userId) {
-        User user = userRepository.findById(userId).orElseThrow(() ->
-                new UserNotFoundException("User ID: " + userId + " not found"));
+        User user = userLookup.getUser(userId);
         Item item = ItemMapper.makeToItem(itemDto);
         item.setOwner(user);
         if (itemDto.getRequestId() != null) {
@@ -54,25 +63,27 @@ public class ItemServiceImp implements ItemService {
                     new RequestNotFoundException("Request ID: " + userId + " not found"));
             item.setRequest(request);
         }
-        return ItemMapper.makeToDto(itemRepository.save(item));
+        item = itemRepository.save(item);
+        indexItem(item);
+        return ItemMapper.makeToDto(item);
     }
 
     @Override
     public ItemDtoWithBookingsAndComments getItemById(Long itemId, Long userId) {
         Item item = itemRepository.findById(itemId).orElseThrow(() -> new ItemNotFoundException("Item ID: " + itemId + " not found"));
         List<Comment> commentsList = commentRepository.findAllByItemId(itemId);
-        List<Booking> bookingList = bookingRepository.findAllByItemId(itemId);
         if (!item.getOwner().getId().equals(userId)) {
             return ItemMapper.makeToItemDtoWithBookingsAndComments(item, commentsList.stream()
                             .map(comment -> CommentMapper.makeToDto(comment)).collect(Collectors.toList()),
                     null, null);
         } else {
+            ItemBookingPointer pointer = itemBookingPointerService.getPointer(itemId);
             return ItemMapper.makeToItemDtoWithBookingsAndComments(
                     item,
                     commentsList.isEmpty() ? new ArrayList<CommentDto>() : commentsList.stream()
                             .map(comment -> CommentMapper.makeToDto(comment)).collect(Collectors.toList()),
-                    getLastBooking(bookingList, item.getId()),
-                    getNextBooking(bookingList, item.getId()));
+                    pointer.getLastBooking() == null ? null : BookingMapper.makeToDtoShort(pointer.getLastBooking()),
+                    pointer.getNextBooking() == null ? null : BookingMapper.makeToDtoShort(pointer.getNextBooking()));
         }
     }
 
@@ -80,21 +91,27 @@ public class ItemServiceImp implements ItemService {
     public List<ItemDtoWithBookingsAndComments> getAllItemsOfUser(Long userId, Integer from, Integer size) {
         Pageable pageable = PageRequest.of(from / size, size);
         List<Item> itemList = itemRepository.findAllByOwnerId(userId, pageable);
+        if (itemList.isEmpty()) {
+            return Collections.emptyList();
+        }
         List<Long> itemIdList = itemList.stream()
                 .map(item -> item.getId())
                 .collect(Collectors.toList());
-        List<Booking> bookingList = bookingRepository.findAllByItemIdIn(itemIdList);
-        List<Comment> commentsList = commentRepository.findAllByItemIdIn(itemIdList);
+        Map<Long, List<Booking>> bookingsByItem = bookingRepository.findLastAndNextByItemIdIn(itemIdList, LocalDateTime.now()).stream()
+                .collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
+        Map<Long, List<CommentDto>> commentsByItem = commentRepository.findAllByItemIdIn(itemIdList).stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId(),
+                        Collectors.mapping(CommentMapper::makeToDto, Collectors.toList())));
 
         return itemList.stream()
-                .map(item -> ItemMapper.makeToItemDtoWithBookingsAndComments(
-                        item,
-                        commentsList.isEmpty() ? new ArrayList<CommentDto>() : commentsList.stream()
-                                .filter(comment -> comment.getItem().getId().equals(item.getId()))
-                                .map(comment -> CommentMapper.makeToDto(comment))
-                                .collect(Collectors.toList()),
-                        getLastBooking(bookingList, item.getId()),
-                        getNextBooking(bookingList, item.getId())))
+                .map(item -> {
+                    List<Booking> bookingList = bookingsByItem.getOrDefault(item.getId(), Collections.emptyList());
+                    return ItemMapper.makeToItemDtoWithBookingsAndComments(
+                            item,
+                            commentsByItem.getOrDefault(item.getId(), new ArrayList<>()),
+                            getLastBooking(bookingList, item.getId()),
+                            getNextBooking(bookingList, item.getId()));
+                })
                 .sorted(Comparator.comparing(ItemDtoWithBookingsAndComments::getId))
                 .collect(Collectors.toList());
     }
@@ -105,14 +122,15 @@ public class ItemServiceImp implements ItemService {
         if (!itemRepository.existsById(itemId)) {
             throw new ItemNotFoundException("Item ID: " + itemId + " not found");
         }
-        User userFromBd = userRepository.findById(userId).orElseThrow(() ->
-                new UserNotFoundException("User ID: " + userId + " not found"));
+        User userFromBd = userLookup.getUser(userId);
         checkOwnerOfItem(itemId, userId, "You can update only yours item");
         Item updateItem = ItemMapper.makeToItem(itemDto);
         updateItem.setId(itemId);
         updateItem.setOwner(userFromBd);
         updateItem = updateItemFields(updateItem);
-        return ItemMapper.makeToDto(itemRepository.save(updateItem));
+        updateItem = itemRepository.save(updateItem);
+        indexItem(updateItem);
+        return ItemMapper.makeToDto(updateItem);
     }
 
     @Transactional
@@ -123,19 +141,82 @@ public class ItemServiceImp implements ItemService {
         }
         checkOwnerOfItem(itemId, userId, "You can delete only yours item");
         itemRepository.deleteById(itemId);
+        AfterCommit.run(() -> {
+            itemSearchIndex.remove(itemId);
+            itemSuggestIndex.remove(itemId);
+        });
     }
 
+    /**
+     * Runs without a transaction: the in-memory modes never borrow a connection,
+     * the LIKE and TRIGRAM repository queries are read-only transactional themselves.
+     */
     @Override
     public List<ItemDto> searchItem(String text, Integer from, Integer size) {
-        Pageable pageable = PageRequest.of(from / size, size);
         if (text.isBlank()) {
             return Collections.emptyList();
         }
-        return itemRepository.searchItem(text, pageable).stream()
+        Pageable pageable = PageRequest.of(from / size, size);
+        List<Item> items;
+        switch (itemSearchProperties.getMode()) {
+            case LIKE:
+                return itemRepository.searchItem(text, pageable);
+            case TRIGRAM:
+                items = itemRepository.searchItemIndexed(text, pageable);
+                break;
+            case RANKED:
+                if ((long) from + size > itemSearchProperties.getRankedMaxDepth()) {
+                    throw new IllegalOperationException("Ranked search is limited to the first "
+                            + itemSearchProperties.getRankedMaxDepth() + " results");
+                }
+                return itemSearchIndex.searchRanked(text, from, size);
+            default:
+                return itemSearchIndex.search(text, from, size);
+        }
+        return items.stream()
                 .map(item -> ItemMapper.makeToDto(item))
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public List<String> suggestItemNames(String prefix, Integer size) {
+        if (prefix.isBlank()) {
+            return Collections.emptyList();
+        }
+        return itemSuggestIndex.suggest(prefix, Math.min(size, itemSearchProperties.getSuggest().getMaxResults()));
+    }
+
+    /**
+     * Free intervals of the item inside {@code [from, to)}: non-rejected bookings reaching into the
+     * window come ordered by start, so one sweep that remembers the furthest end seen so far
+     * merges overlapping or touching bookings and yields the gaps between them.
+     */
+    @Override
+    public List<IntervalDto> getAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new IllegalOperationException("From should be before to");
+        }
+        if (!itemRepository.existsById(itemId)) {
+            throw new ItemNotFoundException("Item ID: " + itemId + " not found");
+        }
+        List<Booking> bookingList = bookingRepository.findAllByItemIdAndStatusNotAndStartBeforeAndEndAfterOrderByStartAsc(
+                itemId, Status.REJECTED, to, from);
+        List<IntervalDto> freeList = new ArrayList<>();
+        LocalDateTime freeFrom = from;
+        for (Booking booking : bookingList) {
+            if (booking.getStart().isAfter(freeFrom)) {
+                freeList.add(new IntervalDto(freeFrom, booking.getStart()));
+            }
+            if (booking.getEnd().isAfter(freeFrom)) {
+                freeFrom = booking.getEnd();
+            }
+        }
+        if (freeFrom.isBefore(to)) {
+            freeList.add(new IntervalDto(freeFrom, to));
+        }
+        return freeList;
+    }
+
     @Override
     public void checkOwnerOfItem(Long itemId, Long userId, String expMessage) {
         if (!itemRepository.findById(itemId).get().getOwner().getId().equals(userId)) {
@@ -167,7 +248,7 @@ public class ItemServiceImp implements ItemService {
     @Transactional
     @Override
     public CommentDto postComment(Long itemId, Long userId, CommentDto commentDto) {
-        User user = userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException("User ID: " + userId + " not found"));
+        User user = userLookup.getUser(userId);
         Item item = itemRepository.findById(itemId).orElseThrow(() -> new ItemNotFoundException("Item ID: " + itemId + " not found"));
         if (bookingRepository.findByItemIdAndBookerIdAndStatusAndEndBefore(itemId, userId, Status.APPROVED, LocalDateTime.now()).isEmpty()) {
             throw new IllegalOperationException("Only user who has completed booking can leave a comment");
@@ -181,6 +262,15 @@ public class ItemServiceImp implements ItemService {
     }
 
 
+    private void indexItem(Item item) {
+        AfterCommit.run(() -> {
+            if (itemSearchProperties.getMode().isInMemory()) {
+                itemSearchIndex.put(item);
+            }
+            itemSuggestIndex.put(item);
+        });
+    }
+
     public BookingDtoShort getLastBooking(List<Booking> bookingList, Long itemId) {
         if (bookingList.isEmpty()) {
             return null;
@@ -0,0 +1,109 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingPage;
+import ru.practicum.shareit.booking.model.State;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Times every method of the item, booking, request and user services as the {@code shareit.service}
+ * timer, tagged by service, operation, booking state, outcome and exception class, and records the
+ * number of returned rows of list results as the {@code shareit.service.result.size} summary.
+ * A state that is not a {@link State} name is tagged {@code UNKNOWN}, so request parameters
+ * cannot add series.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class ServiceMetricsAspect {
+    static final String TIMER = "shareit.service";
+    static final String RESULT_SIZE = "shareit.service.result.size";
+    private static final String NONE = "none";
+
+    private final MeterRegistry meterRegistry;
+
+    @Around("execution(* ru.practicum.shareit.item.service.ItemService.*(..))")
+    public Object itemService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return measure("ItemService", joinPoint);
+    }
+
+    @Around("execution(* ru.practicum.shareit.booking.service.BookingService.*(..))")
+    public Object bookingService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return measure("BookingService", joinPoint);
+    }
+
+    @Around("execution(* ru.practicum.shareit.request.service.ItemRequestService.*(..))")
+    public Object itemRequestService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return measure("ItemRequestService", joinPoint);
+    }
+
+    @Around("execution(* ru.practicum.shareit.user.service.UserService.*(..))")
+    public Object userService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return measure("UserService", joinPoint);
+    }
+
+    private Object measure(String service, ProceedingJoinPoint joinPoint) throws Throwable {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        Tags tags = Tags.of("service", service, "operation", signature.getName(),
+                "state", state(signature.getParameterNames(), joinPoint.getArgs()));
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Throwable error = null;
+        try {
+            Object result = joinPoint.proceed();
+            Integer size = size(result);
+            if (size != null) {
+                DistributionSummary.builder(RESULT_SIZE)
+                        .description("Rows returned by a service method")
+                        .tags(tags)
+                        .register(meterRegistry)
+                        .record(size);
+            }
+            return result;
+        } catch (Throwable e) {
+            error = e;
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(TIMER)
+                    .description("Service method latency")
+                    .tags(tags)
+                    .tag("outcome", error == null ? "success" : "error")
+                    .tag("exception", error == null ? NONE : error.getClass().getSimpleName())
+                    .register(meterRegistry));
+        }
+    }
+
+    private static String state(String[] parameterNames, Object[] args) {
+        if (parameterNames == null) {
+            return NONE;
+        }
+        for (int i = 0; i < parameterNames.length; i++) {
+            if ("state".equals(parameterNames[i])) {
+                Object state = args[i];
+                boolean known = state != null && Arrays.stream(State.values()).anyMatch(value -> value.name().equals(state));
+                return known ? (String) state : "UNKNOWN";
+            }
+        }
+        return NONE;
+    }
+
+    private static Integer size(Object result) {
+        if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        }
+        if (result instanceof BookingPage) {
+            return ((BookingPage) result).getBookings().size();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,60 @@
+package ru.practicum.shareit.metrics;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Counts the JDBC statements the current thread runs between {@link #start()} and {@link #stop()}
+ * and the time spent executing them. Fed by the datasource proxy of {@link SqlStatisticsConfig};
+ * statements run outside a scope, e.g. by scheduled jobs, are not counted.
+ */
+@Component
+public class SqlStatistics implements QueryExecutionListener {
+    private final ThreadLocal<Scope> current = new ThreadLocal<>();
+
+    public void start() {
+        current.set(new Scope());
+    }
+
+    public Scope stop() {
+        Scope scope = current.get();
+        current.remove();
+        return scope == null ? new Scope() : scope;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Scope scope = current.get();
+        if (scope != null) {
+            scope.started = System.nanoTime();
+        }
+    }
+
+    // a statement batch is one execution of several queries, each of them is counted
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Scope scope = current.get();
+        if (scope != null) {
+            scope.statements += queryInfoList.size();
+            scope.nanos += System.nanoTime() - scope.started;
+        }
+    }
+
+    public static class Scope {
+        private int statements;
+        private long nanos;
+        private long started;
+
+        public int getStatements() {
+            return statements;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+    }
+}
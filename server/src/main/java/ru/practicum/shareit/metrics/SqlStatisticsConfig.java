@@ -0,0 +1,44 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps every {@link DataSource} in a datasource-proxy that reports executed statements
+ * to {@link SqlStatistics}. The pool stays reachable through {@code unwrap}, so its metrics
+ * and health check are unaffected. The filter is declared here rather than scanned,
+ * so controller slice tests do not pick it up.
+ */
+@Configuration
+public class SqlStatisticsConfig {
+
+    @Bean
+    public static BeanPostProcessor sqlStatisticsDataSourceProxy(ObjectProvider<SqlStatistics> sqlStatistics) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(beanName, (DataSource) bean)
+                            .listener(sqlStatistics.getObject())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public SqlStatisticsFilter sqlStatisticsFilter(SqlStatistics sqlStatistics, MeterRegistry meterRegistry,
+                                                   @Value("${shareit.sql-stats.headers:false}") boolean headers,
+                                                   @Value("${shareit.sql-stats.warn-statements:20}") int warnStatements) {
+        return new SqlStatisticsFilter(sqlStatistics, meterRegistry, headers, warnStatements);
+    }
+}
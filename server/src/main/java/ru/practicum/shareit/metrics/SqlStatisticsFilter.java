@@ -0,0 +1,98 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per HTTP request: the number of JDBC statements as the {@code shareit.http.sql.statements} summary
+ * and the time spent in them as the {@code shareit.http.sql.time} timer, both tagged by method and
+ * URI pattern. The numbers are logged with the {@code sqlStatements} and {@code sqlTimeMs} MDC fields,
+ * at WARN from {@code shareit.sql-stats.warn-statements} statements on, which is how an N+1 shows up.
+ * With {@code shareit.sql-stats.headers} (the {@code debug} profile) they are also returned as the
+ * {@code X-Sql-Statements} and {@code X-Sql-Time-Ms} headers; the body is then buffered, so the
+ * headers can still be set after the handler has written it.
+ */
+@Slf4j
+public class SqlStatisticsFilter extends OncePerRequestFilter {
+    static final String STATEMENTS = "shareit.http.sql.statements";
+    static final String TIME = "shareit.http.sql.time";
+    static final String STATEMENTS_HEADER = "X-Sql-Statements";
+    static final String TIME_HEADER = "X-Sql-Time-Ms";
+
+    private final SqlStatistics sqlStatistics;
+    private final MeterRegistry meterRegistry;
+    private final boolean headers;
+    private final int warnStatements;
+
+    public SqlStatisticsFilter(SqlStatistics sqlStatistics, MeterRegistry meterRegistry,
+                               boolean headers, int warnStatements) {
+        this.sqlStatistics = sqlStatistics;
+        this.meterRegistry = meterRegistry;
+        this.headers = headers;
+        this.warnStatements = warnStatements;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ContentCachingResponseWrapper buffered = headers ? new ContentCachingResponseWrapper(response) : null;
+        sqlStatistics.start();
+        try {
+            filterChain.doFilter(request, buffered == null ? response : buffered);
+        } finally {
+            SqlStatistics.Scope scope = sqlStatistics.stop();
+            record(request, response, scope);
+            if (buffered != null) {
+                buffered.setHeader(STATEMENTS_HEADER, String.valueOf(scope.getStatements()));
+                buffered.setHeader(TIME_HEADER, String.valueOf(TimeUnit.NANOSECONDS.toMillis(scope.getNanos())));
+                buffered.copyBodyToResponse();
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, HttpServletResponse response, SqlStatistics.Scope scope) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+        Tags tags = Tags.of("method", request.getMethod(), "uri", uri);
+        DistributionSummary.builder(STATEMENTS)
+                .description("JDBC statements per HTTP request")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(scope.getStatements());
+        Timer.builder(TIME)
+                .description("Time spent in JDBC statements per HTTP request")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(scope.getNanos(), TimeUnit.NANOSECONDS);
+
+        long millis = TimeUnit.NANOSECONDS.toMillis(scope.getNanos());
+        MDC.put("sqlStatements", String.valueOf(scope.getStatements()));
+        MDC.put("sqlTimeMs", String.valueOf(millis));
+        try {
+            if (scope.getStatements() >= warnStatements) {
+                log.warn("{} {} ran {} SQL statements in {} ms, status {}", request.getMethod(), uri,
+                        scope.getStatements(), millis, response.getStatus());
+            } else {
+                log.debug("{} {} ran {} SQL statements in {} ms, status {}", request.getMethod(), uri,
+                        scope.getStatements(), millis, response.getStatus());
+            }
+        } finally {
+            MDC.remove("sqlStatements");
+            MDC.remove("sqlTimeMs");
+        }
+    }
+}
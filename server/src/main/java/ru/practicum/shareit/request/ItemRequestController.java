@@ -29,9 +29,11 @@ public class ItemRequestController {
 
 
     @GetMapping
-    public List<ItemRequestDtoWithItem> itemRequestsByRequestor(@RequestHeader("X-Sharer-User-Id") Long userId) {
+    public List<ItemRequestDtoWithItem> itemRequestsByRequestor(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                @RequestParam(defaultValue = "0") Integer from,
+                                                                @RequestParam(required = false) Integer size) {
         log.info("Get all Requester's Item requests");
-        return itemRequestService.itemRequestsByRequestor(userId);
+        return itemRequestService.itemRequestsByRequestor(userId, from, size);
     }
 
     @GetMapping("/all")
@@ -7,6 +7,7 @@ import lombok.NoArgsConstructor;
 import ru.practicum.shareit.item.dto.ItemDto;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 
@@ -19,4 +20,9 @@ public class ItemRequestDtoWithItem {
     private String description;
     private LocalDateTime created;
     private List<ItemDto> items;
+
+    // row of a projection query, items are attached afterwards
+    public ItemRequestDtoWithItem(Long id, String description, LocalDateTime created) {
+        this(id, description, created, new ArrayList<>());
+    }
 }
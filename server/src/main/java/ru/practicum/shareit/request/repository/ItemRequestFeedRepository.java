@@ -0,0 +1,13 @@
+package ru.practicum.shareit.request.repository;
+
+import ru.practicum.shareit.request.dto.ItemRequestDtoWithItem;
+
+import java.util.List;
+
+public interface ItemRequestFeedRepository {
+    /**
+     * Page of requests of other users, newest first, each with the items answering it,
+     * read in one round-trip. Postgres only: items are aggregated with {@code json_agg}.
+     */
+    List<ItemRequestDtoWithItem> findFeedWithItems(Long userId, long offset, int size);
+}
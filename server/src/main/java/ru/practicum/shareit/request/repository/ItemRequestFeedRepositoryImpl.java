@@ -0,0 +1,47 @@
+package ru.practicum.shareit.request.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.request.dto.ItemRequestDtoWithItem;
+
+import java.util.List;
+
+// a plain bean rather than a Spring Data fragment, so JPA slices do not need Jackson
+@Repository
+public class ItemRequestFeedRepositoryImpl implements ItemRequestFeedRepository {
+    // the page is cut before the join, so a request with many items still counts once
+    private static final String FEED_QUERY = "select cast(json_build_object(" +
+            "'id', r.id, 'description', r.description, 'created', r.created, " +
+            "'items', coalesce(json_agg(json_build_object(" +
+            "'id', i.id, 'name', i.name, 'description', i.description, " +
+            "'available', i.available, 'requestId', i.request_id) order by i.id) " +
+            "filter (where i.id is not null), '[]')) as text) " +
+            "from (select * from requests where user_id <> ? " +
+            "order by created desc, id desc limit ? offset ?) as r " +
+            "left join items as i on i.request_id = r.id " +
+            "group by r.id, r.description, r.created " +
+            "order by r.created desc, r.id desc";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public ItemRequestFeedRepositoryImpl(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public List<ItemRequestDtoWithItem> findFeedWithItems(Long userId, long offset, int size) {
+        return jdbcTemplate.query(FEED_QUERY, (rs, rowNum) -> read(rs.getString(1)), userId, size, offset);
+    }
+
+    private ItemRequestDtoWithItem read(String json) {
+        try {
+            return objectMapper.readValue(json, ItemRequestDtoWithItem.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Malformed request feed row: " + json, e);
+        }
+    }
+}
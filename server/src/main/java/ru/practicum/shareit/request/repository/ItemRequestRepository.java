@@ -1,15 +1,28 @@
 package ru.practicum.shareit.request.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.request.dto.ItemRequestDtoWithItem;
 import ru.practicum.shareit.request.model.ItemRequest;
 
 import java.util.List;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
 
-    List<ItemRequest> findAllByRequestorIdOrderByCreatedAsc(Long userId);
+    @Query("select new ru.practicum.shareit.request.dto.ItemRequestDtoWithItem(r.id, r.description, r.created) " +
+            "from ItemRequest r " +
+            "where r.requestor.id = ?1")
+    List<ItemRequestDtoWithItem> findAllDtoByRequestorId(Long userId, Pageable page);
 
-    Page<ItemRequest> findAllByRequestorIdNot(Long userId, Pageable page);
+    @Query("select new ru.practicum.shareit.request.dto.ItemRequestDtoWithItem(r.id, r.description, r.created) " +
+            "from ItemRequest r " +
+            "where r.requestor.id = ?1")
+    List<ItemRequestDtoWithItem> findAllDtoByRequestorId(Long userId, Sort sort);
+
+    @Query("select new ru.practicum.shareit.request.dto.ItemRequestDtoWithItem(r.id, r.description, r.created) " +
+            "from ItemRequest r " +
+            "where r.requestor.id <> ?1")
+    List<ItemRequestDtoWithItem> findAllDtoByRequestorIdNot(Long userId, Pageable page);
 }
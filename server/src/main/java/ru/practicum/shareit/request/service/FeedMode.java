@@ -0,0 +1,8 @@
+package ru.practicum.shareit.request.service;
+
+public enum FeedMode {
+    // requests with their items aggregated by json_agg in one Postgres query
+    JSON,
+    // a page of requests, then one query for their items (any database)
+    JPA
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.request.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "shareit.requests")
+@Data
+public class ItemRequestProperties {
+    private FeedMode feed = FeedMode.JSON;
+}
@@ -8,7 +8,7 @@ import java.util.List;
 public interface ItemRequestService {
     ItemRequestDto createPost(ItemRequestDto itemRequestDto, Long userId);
 
-    List<ItemRequestDtoWithItem> itemRequestsByRequestor(Long userId);
+    List<ItemRequestDtoWithItem> itemRequestsByRequestor(Long userId, Integer from, Integer size);
 
     List<ItemRequestDtoWithItem> itemRequestsAll(Long userId, Integer from, Integer size);
 
@@ -5,6 +5,7 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.RequestNotFoundException;
 import ru.practicum.shareit.exception.UserNotFoundException;
 import ru.practicum.shareit.item.dto.ItemDto;
@@ -15,32 +16,37 @@ import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDtoWithItem;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestFeedRepository;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserLookup;
 
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @Slf4j
 public class ItemRequestServiceImp implements ItemRequestService {
     private final ItemRequestRepository itemRequestRepository;
-    private final UserRepository userRepository;
+    private final ItemRequestFeedRepository itemRequestFeedRepository;
+    private final UserLookup userLookup;
     private final ItemRepository itemRepository;
+    private final ItemRequestProperties itemRequestProperties;
 
-    public ItemRequestServiceImp(ItemRequestRepository itemRequestRepository, UserRepository userRepository, ItemRepository itemRepository) {
+    public ItemRequestServiceImp(ItemRequestRepository itemRequestRepository, ItemRequestFeedRepository itemRequestFeedRepository,
+                                 UserLookup userLookup, ItemRepository itemRepository,
+                                 ItemRequestProperties itemRequestProperties) {
         this.itemRequestRepository = itemRequestRepository;
-        this.userRepository = userRepository;
+        this.itemRequestFeedRepository = itemRequestFeedRepository;
+        this.userLookup = userLookup;
         this.itemRepository = itemRepository;
+        this.itemRequestProperties = itemRequestProperties;
     }
 
     @Override
     public ItemRequestDto createPost(ItemRequestDto itemRequestDto, Long userId) {
-        User user = userRepository.findById(userId).orElseThrow(() ->
-                new UserNotFoundException("User ID: " + userId + " not found"));
+        User user = userLookup.getUser(userId);
         ItemRequest itemRequest = ItemRequestMapper.makeToItemRequest(itemRequestDto);
         itemRequest.setRequestor(user);
         itemRequest.setCreated(LocalDateTime.now());
@@ -49,56 +55,37 @@ public class ItemRequestServiceImp implements ItemRequestService {
     }
 
     @Override
-    public List<ItemRequestDtoWithItem> itemRequestsByRequestor(Long userId) {
-        if (!userRepository.existsById(userId)) {
+    @Transactional(readOnly = true)
+    public List<ItemRequestDtoWithItem> itemRequestsByRequestor(Long userId, Integer from, Integer size) {
+        Sort sortBy = Sort.by(Sort.Direction.ASC, "created", "id");
+        if (!userLookup.exists(userId)) {
             throw new UserNotFoundException("User ID: " + userId + " not found");
         }
-        List<ItemRequest> itemRequestList = itemRequestRepository.findAllByRequestorIdOrderByCreatedAsc(userId);
-      /*  if (itemRequestList.isEmpty()) {
-            throw new RequestNotFoundException("User ID:" + userId + "has no requests");
-        }*/
-        List<Long> listRequestId = itemRequestList.stream()
-                .map(ItemRequest::getId).collect(Collectors.toList());
-        List<Item> itemsToRequest = itemRepository.findAllByRequestIdIn(listRequestId);
-        List<ItemDto> itemDtoToRequest;
-        if (itemsToRequest.isEmpty()) {
-            itemDtoToRequest = new ArrayList<>();
-        } else {
-            itemDtoToRequest = itemsToRequest.stream()
-                    .map(item -> ItemMapper.makeToDto(item))
-                    .collect(Collectors.toList());
+        // callers that send no size still get the whole list, as before the endpoint was paged
+        if (size == null) {
+            return attachItems(itemRequestRepository.findAllDtoByRequestorId(userId, sortBy));
         }
-
-        return itemRequestList.stream()
-                .map(itemRequest -> ItemRequestMapper.makeToItemRequestWithItem(itemRequest, itemDtoToRequest))
-                .sorted(Comparator.comparing(ItemRequestDtoWithItem::getCreated))
-                .collect(Collectors.toList());
+        Pageable pageable = PageRequest.of(from / size, size, sortBy);
+        return attachItems(itemRequestRepository.findAllDtoByRequestorId(userId, pageable));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ItemRequestDtoWithItem> itemRequestsAll(Long userId, Integer from, Integer size) {
-        Sort sortBy = Sort.by(Sort.Direction.DESC, "created");
+        Sort sortBy = Sort.by(Sort.Direction.DESC, "created", "id");
         Pageable pageable = PageRequest.of(from / size, size, sortBy);
-        if (!userRepository.existsById(userId)) {
+        if (!userLookup.exists(userId)) {
             throw new UserNotFoundException("User ID: " + userId + " not found");
         }
-        Map<Long, ItemRequest> itemRequestMap = itemRequestRepository.findAllByRequestorIdNot(userId, pageable).stream()
-                .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
-        List<Long> listRequestId = itemRequestMap.keySet().stream().collect(Collectors.toList());
-
-        Map<Long, List<ItemDto>> itemDtoToRequest = itemRepository.findAllByRequestIdIn(listRequestId).stream()
-                .map(ItemMapper::makeToDto)
-                .collect(Collectors.groupingBy(ItemDto::getRequestId));
-
-        return itemRequestMap.values().stream()
-                .map(itemRequest -> ItemRequestMapper.makeToItemRequestWithItem(itemRequest,
-                        itemDtoToRequest.getOrDefault(itemRequest.getId(), Collections.emptyList())))
-                .collect(Collectors.toList());
+        if (itemRequestProperties.getFeed() == FeedMode.JSON) {
+            return itemRequestFeedRepository.findFeedWithItems(userId, pageable.getOffset(), size);
+        }
+        return attachItems(itemRequestRepository.findAllDtoByRequestorIdNot(userId, pageable));
     }
 
     @Override
     public ItemRequestDtoWithItem getItemRequestById(Long userId, Long itemRequestId) {
-        if (!userRepository.existsById(userId)) {
+        if (!userLookup.exists(userId)) {
             throw new UserNotFoundException("User ID: " + userId + " not found");
         }
 
@@ -116,4 +103,20 @@ public class ItemRequestServiceImp implements ItemRequestService {
 
         return ItemRequestMapper.makeToItemRequestWithItem(itemRequest, itemDtoToRequest);
     }
+
+    // one query for the items of the whole page, each request gets only its own answers
+    private List<ItemRequestDtoWithItem> attachItems(List<ItemRequestDtoWithItem> itemRequests) {
+        if (itemRequests.isEmpty()) {
+            return itemRequests;
+        }
+        List<Long> listRequestId = itemRequests.stream()
+                .map(ItemRequestDtoWithItem::getId).collect(Collectors.toList());
+
+        Map<Long, List<ItemDto>> itemDtoToRequest = itemRepository.findAllDtoByRequestIdIn(listRequestId).stream()
+                .collect(Collectors.groupingBy(ItemDto::getRequestId));
+
+        itemRequests.forEach(itemRequest ->
+                itemRequest.setItems(itemDtoToRequest.getOrDefault(itemRequest.getId(), Collections.emptyList())));
+        return itemRequests;
+    }
 }
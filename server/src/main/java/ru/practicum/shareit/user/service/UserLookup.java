@@ -0,0 +1,74 @@
+package ru.practicum.shareit.user.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.exception.UserNotFoundException;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.Duration;
+
+/**
+ * Cached check of the {@code X-Sharer-User-Id} header. Users are kept for
+ * {@code shareit.user-cache.ttl} and at most {@code shareit.user-cache.max-size} of them;
+ * unknown ids are not cached, so a new user is visible at once. Hits and misses are
+ * published as the {@code cache.gets} meter of the {@code users} cache.
+ */
+@Component
+public class UserLookup {
+    private final UserRepository userRepository;
+    private final Cache<Long, User> users;
+
+    public UserLookup(UserRepository userRepository, MeterRegistry meterRegistry,
+                      @Value("${shareit.user-cache.max-size:10000}") long maxSize,
+                      @Value("${shareit.user-cache.ttl:PT5M}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, users, "users");
+    }
+
+    /**
+     * Returns a copy, so callers are free to change it.
+     */
+    public User getUser(Long userId) {
+        User user = find(userId);
+        if (user == null) {
+            throw new UserNotFoundException("User ID: " + userId + " not found");
+        }
+        return new User(user.getId(), user.getName(), user.getEmail());
+    }
+
+    public boolean exists(Long userId) {
+        return find(userId) != null;
+    }
+
+    /**
+     * Evicts the user now and once more when the current transaction is over,
+     * so a read racing with the update cannot put the old row back.
+     */
+    public void invalidate(Long userId) {
+        users.invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    users.invalidate(userId);
+                }
+            });
+        }
+    }
+
+    private User find(Long userId) {
+        return users.get(userId, id -> userRepository.findById(id).orElse(null));
+    }
+}
@@ -2,8 +2,14 @@ package ru.practicum.shareit.user.service;
 
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
+import ru.practicum.shareit.cache.SecondLevelCache;
 import ru.practicum.shareit.exception.DuplicateException;
 import ru.practicum.shareit.exception.UserNotFoundException;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.AfterCommit;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.search.ItemSuggestIndex;
+import ru.practicum.shareit.item.service.ItemBookingPointerService;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
@@ -18,6 +24,12 @@ import java.util.stream.Collectors;
 @AllArgsConstructor
 public class UserServiceImp implements UserService {
     private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemSuggestIndex itemSuggestIndex;
+    private final ItemBookingPointerService itemBookingPointerService;
+    private final UserLookup userLookup;
+    private final SecondLevelCache secondLevelCache;
 
     @Transactional
     @Override
@@ -38,9 +50,7 @@ public class UserServiceImp implements UserService {
     @Override
     public UserDto getUserById(Long userId) {
         // userRepository.isUserExist(userId);
-        return UserMapper.makeUserDto(
-                userRepository.findById(userId).orElseThrow(() ->
-                        new UserNotFoundException("User ID: " + userId + " not found")));
+        return UserMapper.makeUserDto(userLookup.getUser(userId));
     }
 
     @Transactional
@@ -58,6 +68,7 @@ public class UserServiceImp implements UserService {
             updateUser.setEmail(userFromBd.getEmail());
         }
         userRepository.save(updateUser);
+        userLookup.invalidate(userId);
         return UserMapper.makeUserDto(updateUser);
     }
 
@@ -67,7 +78,17 @@ public class UserServiceImp implements UserService {
         if (!userRepository.existsById(userId)) {
             throw new UserNotFoundException("User ID: " + userId + " not found");
         }
+        List<Long> itemIds = itemRepository.findIdsByOwnerIdOrRequestorId(userId);
+        // the user's bookings go with them, so other owners' items lose their last/next booking
+        List<Long> bookedItemIds = itemBookingPointerService.getItemIdsBookedBy(userId);
         userRepository.deleteById(userId);
+        userLookup.invalidate(userId);
+        secondLevelCache.evictUserData();
+        AfterCommit.run(() -> {
+            itemSearchIndex.removeAll(itemIds);
+            itemSuggestIndex.removeAll(itemIds);
+            itemBookingPointerService.refreshAll(bookedItemIds);
+        });
     }
 
     @Override
@@ -0,0 +1,8 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+CREATE INDEX IF NOT EXISTS idx_items_name_trgm ON items USING gin (name gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_items_description_trgm ON items USING gin (description gin_trgm_ops);
+
+ALTER TABLE bookings ADD CONSTRAINT excl_bookings_item_period EXCLUDE USING gist
+    (item_id WITH =, tsrange(start_time, end_time) WITH &&) WHERE (status IN ('WAITING', 'APPROVED'));
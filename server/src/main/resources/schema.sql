@@ -3,6 +3,7 @@ DROP TABLE IF EXISTS items CASCADE;
 DROP TABLE IF EXISTS comments CASCADE;
 DROP TABLE IF EXISTS bookings CASCADE;
 DROP TABLE IF EXISTS requests CASCADE;
+DROP TABLE IF EXISTS item_booking_pointers CASCADE;
 
 
 CREATE TABLE IF NOT EXISTS users (
@@ -49,5 +50,25 @@ CREATE TABLE IF NOT EXISTS comments (
    created TIMESTAMP NOT NULL
 );
 
+CREATE TABLE IF NOT EXISTS item_booking_pointers (
+   item_id BIGINT PRIMARY KEY REFERENCES items(id) ON DELETE CASCADE,
+   last_booking_id BIGINT REFERENCES bookings(id) ON DELETE SET NULL,
+   next_booking_id BIGINT REFERENCES bookings(id) ON DELETE SET NULL,
+   next_start TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_item_booking_pointers_next_start ON item_booking_pointers (next_start);
 
+-- items of an owner and of a request
+CREATE INDEX IF NOT EXISTS idx_items_owner ON items (user_id);
+CREATE INDEX IF NOT EXISTS idx_items_request ON items (request_id);
+CREATE INDEX IF NOT EXISTS idx_requests_requestor ON requests (user_id, created DESC);
+CREATE INDEX IF NOT EXISTS idx_comments_item ON comments (item_id);
 
+-- bookings of a booker: ALL/PAST/FUTURE/CURRENT ordered by start, WAITING/REJECTED by status
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (user_id, start_time DESC);
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_status_start ON bookings (user_id, status, start_time DESC);
+-- bookings of an item: owner listings via items(user_id), last/next, availability, overlap check
+CREATE INDEX IF NOT EXISTS idx_bookings_item_start ON bookings (item_id, start_time);
+-- completed booking of an item by a booker before commenting
+CREATE INDEX IF NOT EXISTS idx_bookings_item_booker_end ON bookings (item_id, user_id, end_time);
@@ -69,14 +69,26 @@ public class ItemRequestControllerTest {
 
     @Test
     public void itemRequestsByRequestor() throws Exception {
-        when(itemRequestService.itemRequestsByRequestor(anyLong()))
+        when(itemRequestService.itemRequestsByRequestor(anyLong(), anyInt(), any()))
                 .thenReturn(List.of(itemRequestDtoWithItem));
 
         mvc.perform(get("/requests")
                         .header("X-Sharer-User-Id", 1))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$", hasSize(1)));
-        verify(itemRequestService).itemRequestsByRequestor(1L);
+        verify(itemRequestService).itemRequestsByRequestor(1L, 0, null);
+    }
+
+    @Test
+    public void itemRequestsByRequestor_whenPaged() throws Exception {
+        when(itemRequestService.itemRequestsByRequestor(anyLong(), anyInt(), anyInt()))
+                .thenReturn(List.of(itemRequestDtoWithItem));
+
+        mvc.perform(get("/requests?from=5&size=5")
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+        verify(itemRequestService).itemRequestsByRequestor(1L, 5, 5);
     }
 
     @Test
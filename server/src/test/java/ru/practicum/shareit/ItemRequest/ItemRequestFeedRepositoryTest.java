@@ -0,0 +1,85 @@
+package ru.practicum.shareit.ItemRequest;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.request.dto.ItemRequestDtoWithItem;
+import ru.practicum.shareit.request.repository.ItemRequestFeedRepositoryImpl;
+
+import java.sql.Connection;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+
+/**
+ * Runs the json_agg request feed against a real Postgres with the production schema.
+ * Skipped when the embedded server cannot start.
+ */
+public class ItemRequestFeedRepositoryTest {
+    static EmbeddedPostgres postgres;
+    static ItemRequestFeedRepositoryImpl feedRepository;
+
+    @BeforeAll
+    static void startPostgres() throws Exception {
+        try {
+            postgres = EmbeddedPostgres.start();
+        } catch (Exception e) {
+            Assumptions.assumeTrue(false, "Embedded Postgres is not available: " + e.getMessage());
+        }
+        try (Connection connection = postgres.getPostgresDatabase().getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("schema.sql"));
+        }
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(postgres.getPostgresDatabase());
+        jdbcTemplate.update("insert into users (id, name, email) values (1, 'Owner', 'owner@yamail.com'), "
+                + "(2, 'Requestor', 'requestor@yamail.com')");
+        jdbcTemplate.update("insert into requests (id, description, user_id, created) values "
+                + "(1, 'Oldest', 2, timestamp '2023-10-01 12:00:00'), "
+                + "(2, 'Newest', 2, timestamp '2023-10-03 12:00:00.123456'), "
+                + "(3, 'Middle', 2, timestamp '2023-10-02 12:00:00'), "
+                + "(4, 'Own', 1, timestamp '2023-10-04 12:00:00')");
+        jdbcTemplate.update("insert into items (id, name, description, available, user_id, request_id) values "
+                + "(1, 'Drill', 'Cordless drill', true, 1, 2), "
+                + "(2, 'Saw', 'Hand saw', false, 1, 1), "
+                + "(3, 'Hammer', 'Heavy hammer', true, 1, 2), "
+                + "(4, 'Ladder', 'Tall ladder', true, 2, 4)");
+        feedRepository = new ItemRequestFeedRepositoryImpl(jdbcTemplate, Jackson2ObjectMapperBuilder.json().build());
+    }
+
+    @AfterAll
+    static void stopPostgres() throws Exception {
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @Test
+    void findFeedWithItems_whenPaged_thenNewestFirstWithOwnItems() {
+        List<ItemRequestDtoWithItem> firstPage = feedRepository.findFeedWithItems(1L, 0, 2);
+
+        assertThat(ids(firstPage), contains(2L, 3L));
+        assertThat(firstPage.get(0).getCreated(), equalTo(LocalDateTime.of(2023, 10, 3, 12, 0, 0, 123456000)));
+        assertThat(firstPage.get(0).getItems().stream().map(ItemDto::getId).collect(Collectors.toList()), contains(1L, 3L));
+        assertThat(firstPage.get(0).getItems().get(0), equalTo(new ItemDto(1L, "Drill", "Cordless drill", true, 2L)));
+        assertThat(firstPage.get(1).getItems(), empty());
+
+        List<ItemRequestDtoWithItem> secondPage = feedRepository.findFeedWithItems(1L, 2, 2);
+        assertThat(ids(secondPage), contains(1L));
+        assertThat(secondPage.get(0).getItems().get(0).getAvailable(), equalTo(false));
+    }
+
+    private List<Long> ids(List<ItemRequestDtoWithItem> requests) {
+        return requests.stream().map(ItemRequestDtoWithItem::getId).collect(Collectors.toList());
+    }
+}
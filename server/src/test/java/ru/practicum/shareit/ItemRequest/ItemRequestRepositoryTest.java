@@ -7,7 +7,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.request.dto.ItemRequestDtoWithItem;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
@@ -16,7 +18,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
-import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasSize;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
@@ -55,27 +57,31 @@ public class ItemRequestRepositoryTest {
     }
 
     @Test
-    public void findAllByRequestorIdOrderByCreatedAsc() {
+    public void findAllDtoByRequestorId() {
+        ItemRequest itemRequest2 = createItemRequestTest2();
+        itemRequest2.setRequestor(requestor);
+        itemRequest2.setCreated(itemRequest.getCreated().minusDays(1));
         em.persist(requestor);
         itemRequestRepository.save(itemRequest);
-        List<ItemRequest> itemRequests = itemRequestRepository.findAllByRequestorIdOrderByCreatedAsc(requestor.getId());
-        assertNotNull(itemRequests);
+        itemRequestRepository.save(itemRequest2);
+        List<ItemRequestDtoWithItem> itemRequests = itemRequestRepository.findAllDtoByRequestorId(requestor.getId(),
+                PageRequest.of(0, 1, Sort.by(Sort.Direction.ASC, "created", "id")));
         assertThat(itemRequests, hasSize(1));
-        assertThat(itemRequests, hasItem(itemRequest));
+        assertThat(itemRequests.get(0).getId(), equalTo(itemRequest2.getId()));
     }
 
     @Test
-    public void findAllByRequestorIdNot() {
+    public void findAllDtoByRequestorIdNot() {
         User user = createUserTest();
         ItemRequest itemRequest2 = createItemRequestTest2();
         em.persist(requestor);
         em.persist(user);
         itemRequestRepository.save(itemRequest);
         itemRequestRepository.save(itemRequest2);
-        List<ItemRequest> itemRequests = itemRequestRepository.findAllByRequestorIdNot(requestor.getId(), PageRequest.of(0, 10)).toList();
+        List<ItemRequestDtoWithItem> itemRequests = itemRequestRepository.findAllDtoByRequestorIdNot(requestor.getId(), PageRequest.of(0, 10));
         assertNotNull(itemRequests);
         assertThat(itemRequests, hasSize(1));
-        assertThat(itemRequests, hasItem(itemRequest2));
+        assertThat(itemRequests.get(0).getId(), equalTo(itemRequest2.getId()));
     }
 
 
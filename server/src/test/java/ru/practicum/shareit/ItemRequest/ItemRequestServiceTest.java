@@ -5,21 +5,26 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.annotation.DirtiesContext;
 import ru.practicum.shareit.exception.RequestNotFoundException;
 import ru.practicum.shareit.exception.UserNotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDtoWithItem;
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestFeedRepository;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.request.service.FeedMode;
+import ru.practicum.shareit.request.service.ItemRequestProperties;
 import ru.practicum.shareit.request.service.ItemRequestServiceImp;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserLookup;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -31,6 +36,9 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -41,16 +49,19 @@ public class ItemRequestServiceTest {
     @Mock
     ItemRequestRepository itemRequestRepository;
     @Mock
-    UserRepository userRepository;
+    ItemRequestFeedRepository itemRequestFeedRepository;
+    @Mock
+    UserLookup userLookup;
     @Mock
     ItemRepository itemRepository;
+    @Spy
+    ItemRequestProperties itemRequestProperties = new ItemRequestProperties();
     User owner;
     User requestor;
     Item item;
     ItemRequest itemRequest;
     ItemRequestDto itemRequestDto;
 
-
     @BeforeEach
     void setUp() {
         owner = createOwnerTest();
@@ -62,7 +73,7 @@ public class ItemRequestServiceTest {
 
     @Test
     void createPost_whenPostDto_thenSave() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(requestor));
+        when(userLookup.getUser(anyLong())).thenReturn(requestor);
         when(itemRequestRepository.save(any(ItemRequest.class))).thenReturn(itemRequest);
         ItemRequestDto result = itemRequestService.createPost(itemRequestDto, 2L);
         assertThat(result.getId(), equalTo(1L));
@@ -70,8 +81,8 @@ public class ItemRequestServiceTest {
 
     @Test
     void createPost_whenUserNotFound_thenUserNotFoundException() {
-        when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.empty());
+        when(userLookup.getUser(anyLong()))
+                .thenThrow(new UserNotFoundException("User ID: " + 2L + " not found"));
         UserNotFoundException exception = assertThrows(UserNotFoundException.class,
                 () -> itemRequestService.createPost(itemRequestDto, 2L));
         assertThat(exception.getMessage(), equalTo("User ID: " + 2L + " not found"));
@@ -79,45 +90,92 @@ public class ItemRequestServiceTest {
 
     @Test
     void itemRequestsByRequestor_whenUserId_thenListItemRequestsByRequestor() {
-        when(userRepository.existsById(anyLong())).thenReturn(Boolean.TRUE);
-        when(itemRequestRepository.findAllByRequestorIdOrderByCreatedAsc(anyLong())).thenReturn(List.of(itemRequest));
-        when(itemRepository.findAllByRequestIdIn(anyList())).thenReturn(List.of(item));
-        List<ItemRequestDtoWithItem> itemRequestList = itemRequestService.itemRequestsByRequestor(2L);
-        assertFalse(itemRequestList.isEmpty());
+        when(userLookup.exists(anyLong())).thenReturn(Boolean.TRUE);
+        when(itemRequestRepository.findAllDtoByRequestorId(anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(new ItemRequestDtoWithItem(1L, "Request", LocalDateTime.now().minusDays(1)),
+                        new ItemRequestDtoWithItem(2L, "Newer request", LocalDateTime.now())));
+        when(itemRepository.findAllDtoByRequestIdIn(anyList()))
+                .thenReturn(List.of(new ItemDto(5L, "ItemName", "ItemDescription", true, 1L),
+                        new ItemDto(6L, "OtherItemName", "OtherItemDescription", true, 2L),
+                        new ItemDto(7L, "ThirdItemName", "ThirdItemDescription", true, 2L)));
+        List<ItemRequestDtoWithItem> itemRequestList = itemRequestService.itemRequestsByRequestor(2L, 0, 10);
+        assertThat(itemRequestList.size(), equalTo(2));
         assertThat(itemRequestList.get(0).getId(), equalTo(1L));
+        assertThat(itemRequestList.get(0).getItems().size(), equalTo(1));
+        assertThat(itemRequestList.get(1).getItems().size(), equalTo(2));
     }
 
     @Test
     void itemRequestsByRequestor_whenItemListIsEmpty_thenListItemRequestsByRequestor() {
-        when(userRepository.existsById(anyLong())).thenReturn(Boolean.TRUE);
-        when(itemRequestRepository.findAllByRequestorIdOrderByCreatedAsc(anyLong())).thenReturn(List.of(itemRequest));
-        when(itemRepository.findAllByRequestIdIn(anyList())).thenReturn(new ArrayList<>());
-        List<ItemRequestDtoWithItem> itemRequestList = itemRequestService.itemRequestsByRequestor(2L);
+        when(userLookup.exists(anyLong())).thenReturn(Boolean.TRUE);
+        when(itemRequestRepository.findAllDtoByRequestorId(anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(new ItemRequestDtoWithItem(1L, "Request", LocalDateTime.now())));
+        when(itemRepository.findAllDtoByRequestIdIn(anyList())).thenReturn(new ArrayList<>());
+        List<ItemRequestDtoWithItem> itemRequestList = itemRequestService.itemRequestsByRequestor(2L, 0, 10);
         assertFalse(itemRequestList.isEmpty());
         assertTrue(itemRequestList.get(0).getItems().isEmpty());
     }
 
+    @Test
+    void itemRequestsByRequestor_whenNoRequests_thenNoItemQuery() {
+        when(userLookup.exists(anyLong())).thenReturn(Boolean.TRUE);
+        when(itemRequestRepository.findAllDtoByRequestorId(anyLong(), any(Pageable.class))).thenReturn(new ArrayList<>());
+        List<ItemRequestDtoWithItem> itemRequestList = itemRequestService.itemRequestsByRequestor(2L, 0, 10);
+        assertTrue(itemRequestList.isEmpty());
+        verifyNoInteractions(itemRepository);
+    }
+
+    @Test
+    void itemRequestsByRequestor_whenNoSize_thenWholeList() {
+        when(userLookup.exists(anyLong())).thenReturn(Boolean.TRUE);
+        when(itemRequestRepository.findAllDtoByRequestorId(anyLong(), any(Sort.class)))
+                .thenReturn(List.of(new ItemRequestDtoWithItem(1L, "Request", LocalDateTime.now())));
+        when(itemRepository.findAllDtoByRequestIdIn(anyList()))
+                .thenReturn(List.of(new ItemDto(5L, "ItemName", "ItemDescription", true, 1L)));
+        List<ItemRequestDtoWithItem> itemRequestList = itemRequestService.itemRequestsByRequestor(2L, 0, null);
+        assertThat(itemRequestList.size(), equalTo(1));
+        assertThat(itemRequestList.get(0).getItems().size(), equalTo(1));
+        verify(itemRequestRepository, never()).findAllDtoByRequestorId(anyLong(), any(Pageable.class));
+    }
+
     @Test
     void itemRequestsByRequestor_whenUserNotFound_thenUserNotFoundException() {
-        when(userRepository.existsById(anyLong())).thenReturn(Boolean.FALSE);
+        when(userLookup.exists(anyLong())).thenReturn(Boolean.FALSE);
         UserNotFoundException exception = assertThrows(UserNotFoundException.class,
-                () -> itemRequestService.itemRequestsByRequestor(1L));
+                () -> itemRequestService.itemRequestsByRequestor(1L, 0, 10));
         assertThat(exception.getMessage(), equalTo("User ID: " + 1L + " not found"));
     }
 
     @Test
-    void itemRequestsAll_whenUserId_thenListItemRequests() {
-        when(userRepository.existsById(anyLong())).thenReturn(Boolean.TRUE);
-        when(itemRequestRepository.findAllByRequestorIdNot(anyLong(), any(Pageable.class))).thenReturn(new PageImpl<>(List.of(itemRequest)));
-        when(itemRepository.findAllByRequestIdIn(anyList())).thenReturn(Collections.emptyList());
+    void itemRequestsAll_whenJpaFeed_thenListItemRequests() {
+        itemRequestProperties.setFeed(FeedMode.JPA);
+        when(userLookup.exists(anyLong())).thenReturn(Boolean.TRUE);
+        when(itemRequestRepository.findAllDtoByRequestorIdNot(anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(new ItemRequestDtoWithItem(1L, "Request", LocalDateTime.now()),
+                        new ItemRequestDtoWithItem(2L, "Older request", LocalDateTime.now().minusDays(1))));
+        when(itemRepository.findAllDtoByRequestIdIn(anyList()))
+                .thenReturn(List.of(new ItemDto(5L, "ItemName", "ItemDescription", true, 2L)));
         List<ItemRequestDtoWithItem> itemRequestList = itemRequestService.itemRequestsAll(1L, 0, 10);
-        assertFalse(itemRequestList.isEmpty());
+        assertThat(itemRequestList.size(), equalTo(2));
         assertThat(itemRequestList.get(0).getId(), equalTo(1L));
+        assertTrue(itemRequestList.get(0).getItems().isEmpty());
+        assertThat(itemRequestList.get(1).getItems().get(0).getId(), equalTo(5L));
+    }
+
+    @Test
+    void itemRequestsAll_whenJsonFeed_thenSingleQueryWithItems() {
+        when(userLookup.exists(anyLong())).thenReturn(Boolean.TRUE);
+        when(itemRequestFeedRepository.findFeedWithItems(1L, 20L, 10))
+                .thenReturn(List.of(new ItemRequestDtoWithItem(1L, "Request", LocalDateTime.now(),
+                        List.of(new ItemDto(5L, "ItemName", "ItemDescription", true, 1L)))));
+        List<ItemRequestDtoWithItem> itemRequestList = itemRequestService.itemRequestsAll(1L, 20, 10);
+        assertThat(itemRequestList.get(0).getItems().get(0).getId(), equalTo(5L));
+        verifyNoInteractions(itemRepository);
     }
 
     @Test
     void itemRequestsAll_whenUserNotFound_thenUserNotFoundException() {
-        when(userRepository.existsById(anyLong())).thenReturn(Boolean.FALSE);
+        when(userLookup.exists(anyLong())).thenReturn(Boolean.FALSE);
         UserNotFoundException exception = assertThrows(UserNotFoundException.class,
                 () -> itemRequestService.itemRequestsAll(1L, 0, 10));
         assertThat(exception.getMessage(), equalTo("User ID: " + 1L + " not found"));
@@ -125,7 +183,7 @@ public class ItemRequestServiceTest {
 
     @Test
     void getItemRequestById_whenUserId_thenItemRequest() {
-        when(userRepository.existsById(anyLong())).thenReturn(Boolean.TRUE);
+        when(userLookup.exists(anyLong())).thenReturn(Boolean.TRUE);
         when(itemRequestRepository.findById(anyLong())).thenReturn(Optional.of(itemRequest));
         when(itemRepository.findAllByRequestId(anyLong())).thenReturn(Collections.emptyList());
         ItemRequestDtoWithItem result = itemRequestService.getItemRequestById(2L, 1L);
@@ -134,7 +192,7 @@ public class ItemRequestServiceTest {
 
     @Test
     void getItemRequestById_whenRequestNotFound_thenRequestNotFoundException() {
-        when(userRepository.existsById(anyLong())).thenReturn(Boolean.TRUE);
+        when(userLookup.exists(anyLong())).thenReturn(Boolean.TRUE);
         when(itemRequestRepository.findById(anyLong()))
                 .thenReturn(Optional.empty());
         RequestNotFoundException exception = assertThrows(RequestNotFoundException.class,
@@ -144,7 +202,7 @@ public class ItemRequestServiceTest {
 
     @Test
     void getItemRequestById_whenUserNotFound_thenUserNotFoundException() {
-        when(userRepository.existsById(anyLong())).thenReturn(Boolean.FALSE);
+        when(userLookup.exists(anyLong())).thenReturn(Boolean.FALSE);
         UserNotFoundException exception = assertThrows(UserNotFoundException.class,
                 () -> itemRequestService.getItemRequestById(1L, 1L));
         assertThat(exception.getMessage(), equalTo("User ID: " + 1L + " not found"));
@@ -152,7 +210,7 @@ public class ItemRequestServiceTest {
 
     @Test
     void getItemRequestById_whenRequestListNotEmpty_thenItemRequest() {
-        when(userRepository.existsById(anyLong())).thenReturn(Boolean.TRUE);
+        when(userLookup.exists(anyLong())).thenReturn(Boolean.TRUE);
         when(itemRequestRepository.findById(anyLong())).thenReturn(Optional.of(itemRequest));
         when(itemRepository.findAllByRequestId(anyLong())).thenReturn(List.of(item));
         ItemRequestDtoWithItem result = itemRequestService.getItemRequestById(2L, 1L);
@@ -0,0 +1,143 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.BookingNotAvailableException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingPointer;
+import ru.practicum.shareit.item.repository.ItemBookingPointerRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@DirtiesContext
+public class BookingConcurrencyTest {
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS = 2000;
+
+    @Autowired
+    BookingService bookingService;
+    @Autowired
+    BookingRepository bookingRepository;
+    @Autowired
+    ItemRepository itemRepository;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    ItemBookingPointerRepository itemBookingPointerRepository;
+
+    @Test
+    void createBooking_whenParallelOverlappingBookings_thenNoneOfStoredOverlap() throws Exception {
+        User owner = userRepository.save(new User(null, "OwnerNameTest", "OwnerConcurrency@yamail.com"));
+        List<User> bookers = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            bookers.add(userRepository.save(new User(null, "BookerNameTest", "BookerConcurrency" + i + "@yamail.com")));
+        }
+        Item item = itemRepository.save(new Item(null, "ItemTest", "ItemDescriptionTest", true, owner, null));
+        LocalDateTime base = LocalDateTime.now().plusDays(1).withNano(0);
+        Random random = new Random(42);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch ready = new CountDownLatch(1);
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < ATTEMPTS; i++) {
+            LocalDateTime start = base.plusHours(random.nextInt(2000));
+            BookingDto bookingDto = new BookingDto();
+            bookingDto.setItemId(item.getId());
+            bookingDto.setStart(start);
+            bookingDto.setEnd(start.plusHours(1 + random.nextInt(72)));
+            Long bookerId = bookers.get(i % THREADS).getId();
+            futures.add(executor.submit(() -> {
+                ready.await();
+                try {
+                    bookingService.createBooking(bookingDto, bookerId);
+                    created.incrementAndGet();
+                } catch (BookingNotAvailableException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        ready.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        List<Booking> stored = bookingRepository.findAll().stream()
+                .filter(booking -> booking.getStatus() == Status.WAITING)
+                .sorted(Comparator.comparing(Booking::getStart))
+                .collect(Collectors.toList());
+        assertEquals(ATTEMPTS, created.get() + rejected.get());
+        assertEquals(created.get(), stored.size());
+        assertTrue(rejected.get() > 0);
+        for (int i = 1; i < stored.size(); i++) {
+            assertFalse(stored.get(i).getStart().isBefore(stored.get(i - 1).getEnd()),
+                    "Booking " + stored.get(i).getId() + " overlaps " + stored.get(i - 1).getId());
+        }
+    }
+
+    @Test
+    void approveBooking_whenParallelDecisions_thenNextPointerIsFirstNotRejected() throws Exception {
+        User owner = userRepository.save(new User(null, "OwnerNameTest", "OwnerApproval@yamail.com"));
+        User booker = userRepository.save(new User(null, "BookerNameTest", "BookerApproval@yamail.com"));
+        Item item = itemRepository.save(new Item(null, "ItemTest", "ItemDescriptionTest", true, owner, null));
+        LocalDateTime base = LocalDateTime.now().plusDays(1).withNano(0);
+        List<Long> bookingIds = new ArrayList<>();
+        for (int i = 0; i < THREADS * 4; i++) {
+            BookingDto bookingDto = new BookingDto();
+            bookingDto.setItemId(item.getId());
+            bookingDto.setStart(base.plusDays(i));
+            bookingDto.setEnd(base.plusDays(i).plusHours(1));
+            bookingIds.add(bookingService.createBooking(bookingDto, booker.getId()).getId());
+        }
+        Random random = new Random(42);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch ready = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (Long bookingId : bookingIds) {
+            boolean approved = random.nextBoolean();
+            futures.add(executor.submit(() -> {
+                ready.await();
+                bookingService.approveBooking(bookingId, owner.getId(), approved);
+                return null;
+            }));
+        }
+        ready.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        Long expectedNext = bookingRepository.findAll().stream()
+                .filter(booking -> booking.getItem().getId().equals(item.getId()))
+                .filter(booking -> booking.getStatus() == Status.APPROVED)
+                .min(Comparator.comparing(Booking::getStart))
+                .map(Booking::getId)
+                .orElse(null);
+        ItemBookingPointer pointer = itemBookingPointerRepository.findByItemId(item.getId()).orElseThrow();
+        assertEquals(expectedNext, pointer.getNextBooking() == null ? null : pointer.getNextBooking().getId());
+    }
+}
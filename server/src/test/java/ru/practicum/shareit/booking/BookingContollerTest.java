@@ -1,20 +1,24 @@
 package ru.practicum.shareit.booking;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPage;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
@@ -25,6 +29,7 @@ import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -65,6 +70,60 @@ public class BookingContollerTest {
         verify(bookingService).createBooking(bookingDto, 1L);
     }
 
+    @Test
+    public void createBooking_whenExclusionConstraintViolated_thenBadRequest() throws Exception {
+        SQLException overlap = new SQLException("ERROR: conflicting key value violates exclusion constraint "
+                + "\"excl_bookings_item_period\"", "23P01");
+        when(bookingService.createBooking(any(), anyLong()))
+                .thenThrow(new DataIntegrityViolationException("could not execute statement",
+                        new ConstraintViolationException("could not execute statement", overlap, null)));
+
+        mvc.perform(post("/bookings")
+                        .header("X-Sharer-User-Id", 1)
+                        .content(mapper.writeValueAsString(bookingDto))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Item is already booked for these dates")));
+    }
+
+    @Test
+    public void createBooking_whenUniqueConstraintViolated_thenConflict() throws Exception {
+        SQLException duplicate = new SQLException("ERROR: duplicate key value violates unique constraint "
+                + "\"uq_user_email\"", "23505");
+        when(bookingService.createBooking(any(), anyLong()))
+                .thenThrow(new DataIntegrityViolationException("could not execute statement",
+                        new ConstraintViolationException("could not execute statement", duplicate, "uq_user_email")));
+
+        mvc.perform(post("/bookings")
+                        .header("X-Sharer-User-Id", 1)
+                        .content(mapper.writeValueAsString(bookingDto))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error", is("Email already exists")));
+    }
+
+    @Test
+    public void createBooking_whenForeignKeyViolated_thenGenericConflict() throws Exception {
+        SQLException missingItem = new SQLException("ERROR: insert or update on table \"bookings\" violates "
+                + "foreign key constraint \"bookings_item_id_fkey\"", "23503");
+        when(bookingService.createBooking(any(), anyLong()))
+                .thenThrow(new DataIntegrityViolationException("could not execute statement",
+                        new ConstraintViolationException("could not execute statement", missingItem, "bookings_item_id_fkey")));
+
+        mvc.perform(post("/bookings")
+                        .header("X-Sharer-User-Id", 1)
+                        .content(mapper.writeValueAsString(bookingDto))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error", is("Data integrity violation")));
+    }
+
     @Test
     public void approveBooking() throws Exception {
         bookingDto.setStatus(Status.APPROVED);
@@ -130,6 +189,36 @@ public class BookingContollerTest {
         verify(bookingService).getAllBookingsByUserId(1L, "ALL", 0, 10);
     }
 
+    @Test
+    public void getAllBookingsByUserId_whenCursor_thenNextCursorHeader() throws Exception {
+        when(bookingService.getAllBookingsByUserId(anyLong(), anyString(), anyString(), anyInt()))
+                .thenReturn(new BookingPage(List.of(bookingDto), "next"));
+
+        mvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("size", "1")
+                        .param("cursor", ""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "next"))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(bookingDto.getId()), Long.class));
+        verify(bookingService).getAllBookingsByUserId(1L, "ALL", "", 1);
+    }
+
+    @Test
+    public void getAllBookingsByOwnerId_whenLastCursorPage_thenNoHeader() throws Exception {
+        when(bookingService.getAllBookingsByOwnerId(anyLong(), anyString(), anyString(), anyInt()))
+                .thenReturn(new BookingPage(List.of(), null));
+
+        mvc.perform(get("/bookings/owner")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("cursor", "abc"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
+                .andExpect(jsonPath("$", hasSize(0)));
+        verify(bookingService).getAllBookingsByOwnerId(1L, "ALL", "abc", 10);
+    }
+
     @Test
     public void getAllBookingsByOwnerId() throws Exception {
         when(bookingService.getAllBookingsByOwnerId(anyLong(), anyString(), anyInt(), anyInt()))
@@ -6,21 +6,27 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.State;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.hasSize;
-import static org.junit.jupiter.api.Assertions.assertNotNull;
 
 @DataJpaTest
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
@@ -65,41 +71,84 @@ public class BookingRepositoryTest {
     }
 
     @Test
-    public void findAllByBookerIdOrderByStartDesc() {
+    void findPage_whenCurrent_thenFoundForBookerAndOwner() {
         em.persist(owner);
         em.persist(booker);
+        item.setOwner(owner);
         em.persist(item);
-        bookingRepository.save(booking);
-        List<Booking> bookings = bookingRepository.findAllByBookerIdOrderByStartDesc(booker.getId(), PageRequest.of(0, 10));
-        assertNotNull(bookings);
-        assertThat(bookings, hasSize(1));
-        assertThat(bookings, hasItem(booking));
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        Booking current = createBooking(now.minusHours(6), Status.APPROVED);
+        bookingRepository.save(current);
+        bookingRepository.save(createBooking(now.plusDays(1), Status.WAITING));
+
+        List<BookingDto> byBooker = bookingRepository.findPage(booker.getId(), false, State.CURRENT, now, null, 0, 10);
+        List<BookingDto> byOwner = bookingRepository.findPage(owner.getId(), true, State.CURRENT, now, null, 0, 10);
+
+        assertThat(byBooker.stream().map(BookingDto::getId).collect(Collectors.toList()), equalTo(List.of(current.getId())));
+        assertThat(byOwner.stream().map(BookingDto::getId).collect(Collectors.toList()), equalTo(List.of(current.getId())));
     }
 
     @Test
-    public void findAllCurrentBookingsByBookerId() {
+    public void findLastAndNextByItemIdIn() {
         em.persist(owner);
         em.persist(booker);
         em.persist(item);
-        bookingRepository.save(booking);
-        List<Booking> bookings = bookingRepository.findAllCurrentBookingsByBookerId(booker.getId(), LocalDateTime.now(), LocalDateTime.now(), PageRequest.of(0, 10));
-        assertNotNull(bookings);
-        assertThat(bookings, hasSize(1));
-        assertThat(bookings, hasItem(booking));
+        LocalDateTime now = LocalDateTime.now();
+        bookingRepository.save(createBooking(now.minusDays(10), Status.APPROVED));
+        Booking lastPast = bookingRepository.save(createBooking(now.minusDays(5), Status.APPROVED));
+        bookingRepository.save(createBooking(now.plusDays(1), Status.REJECTED));
+        Booking nextFuture = bookingRepository.save(createBooking(now.plusDays(2), Status.WAITING));
+        bookingRepository.save(createBooking(now.plusDays(9), Status.APPROVED));
+
+        List<Booking> bookings = bookingRepository.findLastAndNextByItemIdIn(List.of(item.getId()), now);
+        assertThat(bookings, hasSize(2));
+        assertThat(bookings, hasItem(lastPast));
+        assertThat(bookings, hasItem(nextFuture));
     }
 
     @Test
-    public void findAllByItemOwnerId() {
+    void findPage_whenWalkedWithCursor_thenSameOrderAsOffsetPaging() {
         em.persist(owner);
         em.persist(booker);
+        item.setOwner(owner);
         em.persist(item);
-        bookingRepository.save(booking);
-        List<Booking> bookings = bookingRepository.findAllByItemOwnerId(owner.getId(), LocalDateTime.now(), LocalDateTime.now(), PageRequest.of(0, 10));
-        assertNotNull(bookings);
-        assertThat(bookings, hasSize(1));
-        assertThat(bookings, hasItem(booking));
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        List<Booking> saved = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            saved.add(bookingRepository.save(createBooking(now.plusDays(i % 3), Status.WAITING)));
+        }
+        List<Long> expected = saved.stream()
+                .sorted(Comparator.comparing(Booking::getStart).thenComparing(Booking::getId).reversed())
+                .map(Booking::getId)
+                .collect(Collectors.toList());
+
+        List<Long> walked = new ArrayList<>();
+        BookingCursor cursor = null;
+        List<BookingDto> page;
+        do {
+            page = bookingRepository.findPage(owner.getId(), true, State.ALL, now, cursor, 0, 2);
+            page.forEach(booking -> walked.add(booking.getId()));
+            cursor = page.isEmpty() ? null : BookingCursor.after(page.get(page.size() - 1));
+        } while (page.size() == 2 && walked.size() <= expected.size());
+
+        assertThat(walked, equalTo(expected));
+        assertThat(bookingRepository.findPage(owner.getId(), true, State.ALL, now, null, 2, 2).stream()
+                .map(BookingDto::getId).collect(Collectors.toList()), equalTo(expected.subList(2, 4)));
+        List<BookingDto> future = bookingRepository.findPage(booker.getId(), false, State.FUTURE, now.plusDays(1), null, 0, 10);
+        assertThat(future, hasSize(1));
+        assertThat(future.get(0).getItem().getName(), equalTo(item.getName()));
+        assertThat(future.get(0).getBooker().getId(), equalTo(booker.getId()));
     }
 
+    private Booking createBooking(LocalDateTime start, Status status) {
+        Booking booking = new Booking();
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStart(start);
+        booking.setEnd(start.plusHours(12));
+        booking.setStatus(status);
+        return booking;
+    }
 
     private User createOwnerTest() {
         User user = new User();
@@ -6,10 +6,13 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Pageable;
 import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPage;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.State;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.booking.service.BookingServiceImp;
@@ -19,10 +22,11 @@ import ru.practicum.shareit.exception.IllegalOperationException;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemBookingPointerService;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserLookup;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -31,6 +35,7 @@ import java.util.Optional;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
@@ -43,11 +48,13 @@ public class BookingServiceTest {
     @Mock
     BookingRepository bookingRepository;
     @Mock
-    UserRepository userRepository;
+    UserLookup userLookup;
     @Mock
     ItemRepository itemRepository;
     @Mock
     ItemService itemService;
+    @Mock
+    ItemBookingPointerService itemBookingPointerService;
 
     User owner;
     User booker;
@@ -68,19 +75,20 @@ public class BookingServiceTest {
 
     @Test
     void createBooking_whenBookingDto_thenSave() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(booker));
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
+        when(userLookup.getUser(anyLong())).thenReturn(booker);
+        when(itemRepository.findWithLockById(anyLong())).thenReturn(Optional.of(item));
         when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
 
         BookingDto result = bookingService.createBooking(bookingDto, 2L);
         assertThat(result.getId(), equalTo(1L));
         verify(bookingRepository).save(createBookingWithoutIdTest());
+        verify(itemBookingPointerService).refresh(item.getId());
     }
 
     @Test
     void createBooking_whenItemNotAvailable_thenBookingNotFoundException() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(booker));
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
+        when(userLookup.getUser(anyLong())).thenReturn(booker);
+        when(itemRepository.findWithLockById(anyLong())).thenReturn(Optional.of(item));
 
         BookingNotFoundException exception = assertThrows(BookingNotFoundException.class,
                 () -> bookingService.createBooking(bookingDto, 1L));
@@ -89,18 +97,50 @@ public class BookingServiceTest {
 
     @Test
     void createBooking_whenItemNotAvailable_thenBookingNotAvailableException() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(booker));
+        when(userLookup.getUser(anyLong())).thenReturn(booker);
         item.setAvailable(false);
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
+        when(itemRepository.findWithLockById(anyLong())).thenReturn(Optional.of(item));
 
         BookingNotAvailableException exception = assertThrows(BookingNotAvailableException.class,
                 () -> bookingService.createBooking(bookingDto, 2L));
         assertThat(exception.getMessage(), equalTo("Not available for booking"));
     }
 
+    @Test
+    void createBooking_whenOverlapsActiveBooking_thenBookingNotAvailableException() {
+        Booking existing = createBookingTest();
+        existing.setStart(bookingDto.getStart().minusDays(1));
+        existing.setEnd(bookingDto.getStart().plusHours(1));
+        when(userLookup.getUser(anyLong())).thenReturn(booker);
+        when(itemRepository.findWithLockById(anyLong())).thenReturn(Optional.of(item));
+        when(bookingRepository.findFirstByItemIdAndStatusInAndStartBeforeOrderByStartDesc(
+                1L, List.of(Status.WAITING, Status.APPROVED), bookingDto.getEnd())).thenReturn(Optional.of(existing));
+
+        BookingNotAvailableException exception = assertThrows(BookingNotAvailableException.class,
+                () -> bookingService.createBooking(bookingDto, 2L));
+        assertThat(exception.getMessage(), equalTo("Item is already booked for these dates"));
+        verify(bookingRepository, never()).save(any(Booking.class));
+    }
+
+    @Test
+    void createBooking_whenPreviousBookingEndsAtStart_thenSave() {
+        Booking existing = createBookingTest();
+        existing.setStart(bookingDto.getStart().minusDays(1));
+        existing.setEnd(bookingDto.getStart());
+        when(userLookup.getUser(anyLong())).thenReturn(booker);
+        when(itemRepository.findWithLockById(anyLong())).thenReturn(Optional.of(item));
+        when(bookingRepository.findFirstByItemIdAndStatusInAndStartBeforeOrderByStartDesc(
+                anyLong(), anyList(), any(LocalDateTime.class))).thenReturn(Optional.of(existing));
+        when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
+
+        BookingDto result = bookingService.createBooking(bookingDto, 2L);
+        assertThat(result.getId(), equalTo(1L));
+    }
+
     @Test
     void approveBooking_whenBooking_thenApprove() {
-        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
+        when(bookingRepository.findWithLockById(anyLong())).thenReturn(Optional.of(booking));
+        when(itemRepository.findWithLockById(anyLong())).thenReturn(Optional.of(item));
         doNothing().when(itemService).checkOwnerOfItem(anyLong(), anyLong(), anyString());
         Booking approvedBooking = new Booking();
         approvedBooking.setId(1L);
@@ -115,11 +155,12 @@ public class BookingServiceTest {
         BookingDto result = bookingService.approveBooking(1L, 1L, true);
         assertThat(result.getId(), equalTo(1L));
         assertThat(result.getStatus(), equalTo(Status.APPROVED));
+        verify(itemBookingPointerService).refresh(1L);
     }
 
     @Test
     void approveBooking_whenBookingNotFound_thenBookingNotFoundException() {
-        when(bookingRepository.findById(anyLong()))
+        when(bookingRepository.findWithLockById(anyLong()))
                 .thenReturn(Optional.empty());
         BookingNotFoundException exception = assertThrows(BookingNotFoundException.class,
                 () -> bookingService.approveBooking(1L, 1L, true));
@@ -129,7 +170,8 @@ public class BookingServiceTest {
     @Test
     void approveBooking_whenStatusAPPROVED_thenIllegalOperationException() {
         booking.setStatus(Status.APPROVED);
-        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
+        when(bookingRepository.findWithLockById(anyLong())).thenReturn(Optional.of(booking));
+        when(itemRepository.findWithLockById(anyLong())).thenReturn(Optional.of(item));
 
         IllegalOperationException exception = assertThrows(IllegalOperationException.class,
                 () -> bookingService.approveBooking(1L, 1L, true));
@@ -138,7 +180,8 @@ public class BookingServiceTest {
 
     @Test
     void approveBooking_whenStatusREJECTED_thenIllegalOperationException() {
-        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
+        when(bookingRepository.findWithLockById(anyLong())).thenReturn(Optional.of(booking));
+        when(itemRepository.findWithLockById(anyLong())).thenReturn(Optional.of(item));
         Booking approvedBooking = new Booking();
         approvedBooking.setId(1L);
         approvedBooking.setItem(new Item(1L, "ItemTest", "ItemDescriptionTest", true,
@@ -181,11 +224,60 @@ public class BookingServiceTest {
         assertThat(exception.getMessage(), equalTo("Booking information is not available to you"));
     }
 
+    @Test
+    void getAllBookingsByUserId_whenCursorPageIsFull_thenNextCursorAfterLast() {
+        when(userLookup.getUser(anyLong())).thenReturn(booker);
+        when(bookingRepository.findPage(eq(2L), eq(false), eq(State.ALL), any(LocalDateTime.class), isNull(), eq(0L), eq(1)))
+                .thenReturn(List.of(BookingMapper.makeToDto(booking)));
+
+        BookingPage page = bookingService.getAllBookingsByUserId(2L, "ALL", "", 1);
+
+        assertThat(page.getBookings().get(0).getId(), equalTo(1L));
+        assertThat(BookingCursor.decode(page.getNextCursor()), equalTo(new BookingCursor(booking.getStart(), 1L)));
+    }
+
+    @Test
+    void getAllBookingsByOwnerId_whenCursorGiven_thenSeekAfterIt() {
+        BookingCursor cursor = new BookingCursor(LocalDateTime.of(2023, 11, 15, 12, 0), 7L);
+        when(userLookup.getUser(anyLong())).thenReturn(owner);
+        when(bookingRepository.findPage(eq(1L), eq(true), eq(State.PAST), any(LocalDateTime.class), eq(cursor), eq(0L), eq(10)))
+                .thenReturn(List.of(BookingMapper.makeToDto(booking)));
+
+        BookingPage page = bookingService.getAllBookingsByOwnerId(1L, "PAST", cursor.encode(), 10);
+
+        assertThat(page.getBookings().size(), equalTo(1));
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void getAllBookingsByUserId_whenCursorMalformed_thenIllegalOperationException() {
+        when(userLookup.getUser(anyLong())).thenReturn(booker);
+
+        assertThrows(IllegalOperationException.class,
+                () -> bookingService.getAllBookingsByUserId(2L, "ALL", "not-a-cursor", 10));
+    }
+
+    @Test
+    void getAllBookingsByUserId_whenCursorPageSizeNotPositive_thenIllegalOperationException() {
+        assertThrows(IllegalOperationException.class,
+                () -> bookingService.getAllBookingsByUserId(2L, "ALL", "", 0));
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void getAllBookingsByOwnerId_whenOffsetPageParamsInvalid_thenIllegalOperationException() {
+        assertThrows(IllegalOperationException.class,
+                () -> bookingService.getAllBookingsByOwnerId(1L, "ALL", 0, 0));
+        assertThrows(IllegalOperationException.class,
+                () -> bookingService.getAllBookingsByOwnerId(1L, "ALL", -1, 10));
+        verifyNoInteractions(bookingRepository);
+    }
+
     @Test
     void getAllBookingsByUserId_whenStateALL_thenBookingDtoList() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(booker));
-        when(bookingRepository.findAllByBookerIdOrderByStartDesc(anyLong(), any(Pageable.class)))
-                .thenReturn(List.of(booking));
+        when(userLookup.getUser(anyLong())).thenReturn(booker);
+        when(bookingRepository.findPage(eq(2L), eq(false), eq(State.ALL), any(LocalDateTime.class), isNull(), eq(0L), eq(10)))
+                .thenReturn(List.of(BookingMapper.makeToDto(booking)));
 
         List<BookingDto> bookingList = bookingService.getAllBookingsByUserId(2L, "ALL", 0, 10);
         assertFalse(bookingList.isEmpty());
@@ -194,9 +286,9 @@ public class BookingServiceTest {
 
     @Test
     void getAllBookingsByUserId_whenStateCURRENT_thenBookingDtoList() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(booker));
-        when(bookingRepository.findAllCurrentBookingsByBookerId(anyLong(), any(LocalDateTime.class), any(LocalDateTime.class), any(Pageable.class)))
-                .thenReturn(List.of(booking));
+        when(userLookup.getUser(anyLong())).thenReturn(booker);
+        when(bookingRepository.findPage(eq(2L), eq(false), eq(State.CURRENT), any(LocalDateTime.class), isNull(), eq(0L), eq(10)))
+                .thenReturn(List.of(BookingMapper.makeToDto(booking)));
 
         List<BookingDto> bookingList = bookingService.getAllBookingsByUserId(2L, "CURRENT", 0, 10);
         assertFalse(bookingList.isEmpty());
@@ -205,11 +297,11 @@ public class BookingServiceTest {
 
     @Test
     void getAllBookingsByUserId_whenStatePAST_thenBookingDtoList() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(booker));
+        when(userLookup.getUser(anyLong())).thenReturn(booker);
         booking.setStart(LocalDateTime.of(2023, 10, 01, 12, 00));
         booking.setEnd(LocalDateTime.of(2023, 10, 15, 12, 00));
-        when(bookingRepository.findAllByBookerIdAndEndBeforeOrderByStartDesc(anyLong(), any(LocalDateTime.class), any(Pageable.class)))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.findPage(eq(2L), eq(false), eq(State.PAST), any(LocalDateTime.class), isNull(), eq(0L), eq(10)))
+                .thenReturn(List.of(BookingMapper.makeToDto(booking)));
 
         List<BookingDto> bookingList = bookingService.getAllBookingsByUserId(2L, "PAST", 0, 10);
         assertFalse(bookingList.isEmpty());
@@ -218,11 +310,11 @@ public class BookingServiceTest {
 
     @Test
     void getAllBookingsByUserId_whenStateFUTURE_thenBookingDtoList() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(booker));
+        when(userLookup.getUser(anyLong())).thenReturn(booker);
         booking.setStart(LocalDateTime.of(2023, 12, 01, 12, 00));
         booking.setEnd(LocalDateTime.of(2023, 12, 15, 12, 00));
-        when(bookingRepository.findAllByBookerIdAndStartAfterOrderByStartDesc(anyLong(), any(LocalDateTime.class), any(Pageable.class)))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.findPage(eq(2L), eq(false), eq(State.FUTURE), any(LocalDateTime.class), isNull(), eq(0L), eq(10)))
+                .thenReturn(List.of(BookingMapper.makeToDto(booking)));
 
         List<BookingDto> bookingList = bookingService.getAllBookingsByUserId(2L, "FUTURE", 0, 10);
         assertFalse(bookingList.isEmpty());
@@ -231,9 +323,9 @@ public class BookingServiceTest {
 
     @Test
     void getAllBookingsByUserId_whenStateWAITING_thenBookingDtoList() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(booker));
-        when(bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(anyLong(), any(Status.class), any(Pageable.class)))
-                .thenReturn(List.of(booking));
+        when(userLookup.getUser(anyLong())).thenReturn(booker);
+        when(bookingRepository.findPage(eq(2L), eq(false), eq(State.WAITING), any(LocalDateTime.class), isNull(), eq(0L), eq(10)))
+                .thenReturn(List.of(BookingMapper.makeToDto(booking)));
 
         List<BookingDto> bookingList = bookingService.getAllBookingsByUserId(2L, "WAITING", 0, 10);
         assertFalse(bookingList.isEmpty());
@@ -242,10 +334,10 @@ public class BookingServiceTest {
 
     @Test
     void getAllBookingsByUserId_whenStateREJECTED_thenBookingDtoList() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(booker));
+        when(userLookup.getUser(anyLong())).thenReturn(booker);
         booking.setStatus(Status.REJECTED);
-        when(bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(anyLong(), any(Status.class), any(Pageable.class)))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.findPage(eq(2L), eq(false), eq(State.REJECTED), any(LocalDateTime.class), isNull(), eq(0L), eq(10)))
+                .thenReturn(List.of(BookingMapper.makeToDto(booking)));
 
         List<BookingDto> bookingList = bookingService.getAllBookingsByUserId(2L, "REJECTED", 0, 10);
         assertFalse(bookingList.isEmpty());
@@ -254,9 +346,9 @@ public class BookingServiceTest {
 
     @Test
     void getAllBookingsByOwnerId_whenStateALL_thenBookingDtoList() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(owner));
-        when(bookingRepository.findAllByItemOwnerIdOrderByStartDesc(anyLong(), any(Pageable.class)))
-                .thenReturn(List.of(booking));
+        when(userLookup.getUser(anyLong())).thenReturn(owner);
+        when(bookingRepository.findPage(eq(1L), eq(true), eq(State.ALL), any(LocalDateTime.class), isNull(), eq(0L), eq(10)))
+                .thenReturn(List.of(BookingMapper.makeToDto(booking)));
 
         List<BookingDto> bookingList = bookingService.getAllBookingsByOwnerId(1L, "ALL", 0, 10);
         assertFalse(bookingList.isEmpty());
@@ -265,9 +357,9 @@ public class BookingServiceTest {
 
     @Test
     void getAllBookingsByOwnerId_whenStateCURRENT_thenBookingDtoList() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(owner));
-        when(bookingRepository.findAllByItemOwnerId(anyLong(), any(LocalDateTime.class), any(LocalDateTime.class), any(Pageable.class)))
-                .thenReturn(List.of(booking));
+        when(userLookup.getUser(anyLong())).thenReturn(owner);
+        when(bookingRepository.findPage(eq(1L), eq(true), eq(State.CURRENT), any(LocalDateTime.class), isNull(), eq(0L), eq(10)))
+                .thenReturn(List.of(BookingMapper.makeToDto(booking)));
 
         List<BookingDto> bookingList = bookingService.getAllBookingsByOwnerId(1L, "CURRENT", 0, 10);
         assertFalse(bookingList.isEmpty());
@@ -276,11 +368,11 @@ public class BookingServiceTest {
 
     @Test
     void getAllBookingsByOwnerId_whenStatePAST_thenBookingDtoList() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(owner));
+        when(userLookup.getUser(anyLong())).thenReturn(owner);
         booking.setStart(LocalDateTime.of(2023, 10, 01, 12, 00));
         booking.setEnd(LocalDateTime.of(2023, 10, 15, 12, 00));
-        when(bookingRepository.findAllByItemOwnerIdAndEndBeforeOrderByStartDesc(anyLong(), any(LocalDateTime.class), any(Pageable.class)))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.findPage(eq(1L), eq(true), eq(State.PAST), any(LocalDateTime.class), isNull(), eq(0L), eq(10)))
+                .thenReturn(List.of(BookingMapper.makeToDto(booking)));
 
         List<BookingDto> bookingList = bookingService.getAllBookingsByOwnerId(1L, "PAST", 0, 10);
         assertFalse(bookingList.isEmpty());
@@ -289,11 +381,11 @@ public class BookingServiceTest {
 
     @Test
     void getAllBookingsByOwnerId_whenStateFUTURE_thenBookingDtoList() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(owner));
+        when(userLookup.getUser(anyLong())).thenReturn(owner);
         booking.setStart(LocalDateTime.of(2023, 12, 01, 12, 00));
         booking.setEnd(LocalDateTime.of(2023, 12, 15, 12, 00));
-        when(bookingRepository.findAllByItemOwnerIdAndStartAfterOrderByStartDesc(anyLong(), any(LocalDateTime.class), any(Pageable.class)))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.findPage(eq(1L), eq(true), eq(State.FUTURE), any(LocalDateTime.class), isNull(), eq(0L), eq(10)))
+                .thenReturn(List.of(BookingMapper.makeToDto(booking)));
 
         List<BookingDto> bookingList = bookingService.getAllBookingsByOwnerId(1L, "FUTURE", 0, 10);
         assertFalse(bookingList.isEmpty());
@@ -302,9 +394,9 @@ public class BookingServiceTest {
 
     @Test
     void getAllBookingsByOwnerId_whenStateWAITING_thenBookingDtoList() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(owner));
-        when(bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(anyLong(), any(Status.class), any(Pageable.class)))
-                .thenReturn(List.of(booking));
+        when(userLookup.getUser(anyLong())).thenReturn(owner);
+        when(bookingRepository.findPage(eq(1L), eq(true), eq(State.WAITING), any(LocalDateTime.class), isNull(), eq(0L), eq(10)))
+                .thenReturn(List.of(BookingMapper.makeToDto(booking)));
 
         List<BookingDto> bookingList = bookingService.getAllBookingsByOwnerId(1L, "WAITING", 0, 10);
         assertFalse(bookingList.isEmpty());
@@ -313,10 +405,10 @@ public class BookingServiceTest {
 
     @Test
     void getAllBookingsByOwnerId_whenStateREJECTED_thenBookingDtoList() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(owner));
+        when(userLookup.getUser(anyLong())).thenReturn(owner);
         booking.setStatus(Status.REJECTED);
-        when(bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(anyLong(), any(Status.class), any(Pageable.class)))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.findPage(eq(1L), eq(true), eq(State.REJECTED), any(LocalDateTime.class), isNull(), eq(0L), eq(10)))
+                .thenReturn(List.of(BookingMapper.makeToDto(booking)));
 
         List<BookingDto> bookingList = bookingService.getAllBookingsByOwnerId(1L, "REJECTED", 0, 10);
         assertFalse(bookingList.isEmpty());
@@ -325,7 +417,7 @@ public class BookingServiceTest {
 
     @Test
     void getAllBookingsByOwnerId_whenUnknownState_thenIllegalOperationException() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(owner));
+        when(userLookup.getUser(anyLong())).thenReturn(owner);
 
         IllegalOperationException exception = assertThrows(IllegalOperationException.class,
                 () -> bookingService.getAllBookingsByOwnerId(2L, "UnKnowN", 0, 10));
@@ -0,0 +1,115 @@
+package ru.practicum.shareit.booking;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.State;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Counts the SQL statements of every booking listing path and of a single booking lookup. Each call runs in its own transaction with an
+ * empty persistence context, as a request under open-session-in-view does, so a lazy association touched
+ * by the mapper shows up as an extra statement per row.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@DirtiesContext
+public class BookingStatementCountTest {
+    // user lookup + page query
+    private static final int MAX_STATEMENTS = 2;
+    private static final int BOOKINGS = 10;
+
+    @Autowired
+    BookingService bookingService;
+    @Autowired
+    BookingRepository bookingRepository;
+    @Autowired
+    ItemRepository itemRepository;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    Statistics statistics;
+    User owner;
+    User booker;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        String suffix = String.valueOf(System.nanoTime());
+        owner = userRepository.save(new User(null, "OwnerNameTest", "owner" + suffix + "@yamail.com"));
+        booker = userRepository.save(new User(null, "BookerNameTest", "booker" + suffix + "@yamail.com"));
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        for (int i = 0; i < BOOKINGS; i++) {
+            Item item = itemRepository.save(new Item(null, "ItemTest" + i, "ItemDescriptionTest", true, owner, null));
+            LocalDateTime start = now.plusDays(i - BOOKINGS / 2);
+            Status status = i % 3 == 0 ? Status.WAITING : i % 3 == 1 ? Status.REJECTED : Status.APPROVED;
+            bookingRepository.save(new Booking(null, item, booker, start, start.plusDays(2), status));
+        }
+    }
+
+    @Test
+    void listings_whenPageOfBookings_thenFixedNumberOfStatements() {
+        for (State state : State.values()) {
+            String name = state.name();
+            assertBounded("booker " + name + " offset",
+                    () -> bookingService.getAllBookingsByUserId(booker.getId(), name, 0, BOOKINGS));
+            assertBounded("owner " + name + " offset",
+                    () -> bookingService.getAllBookingsByOwnerId(owner.getId(), name, 0, BOOKINGS));
+            assertBounded("booker " + name + " cursor",
+                    () -> bookingService.getAllBookingsByUserId(booker.getId(), name, "", BOOKINGS).getBookings());
+            assertBounded("owner " + name + " cursor",
+                    () -> bookingService.getAllBookingsByOwnerId(owner.getId(), name, "", BOOKINGS).getBookings());
+        }
+    }
+
+    @Test
+    void listings_whenAllBookings_thenEveryRowMapped() {
+        List<BookingDto> bookings = transactionTemplate.execute(status ->
+                bookingService.getAllBookingsByOwnerId(owner.getId(), "ALL", 0, BOOKINGS));
+        assertEquals(BOOKINGS, bookings.size());
+        assertTrue(bookings.stream().allMatch(booking -> booking.getItem().getName() != null
+                && booking.getBooker().getEmail() != null));
+    }
+
+    @Test
+    void getBookingById_whenBooking_thenOneStatement() {
+        Long bookingId = bookingService.getAllBookingsByUserId(booker.getId(), "ALL", 0, 1).get(0).getId();
+        statistics.clear();
+        BookingDto booking = transactionTemplate.execute(status -> bookingService.getBookingById(bookingId, booker.getId()));
+        assertEquals(booker.getEmail(), booking.getBooker().getEmail());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    private void assertBounded(String path, Supplier<List<BookingDto>> listing) {
+        statistics.clear();
+        List<BookingDto> bookings = transactionTemplate.execute(status -> listing.get());
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements <= MAX_STATEMENTS,
+                path + " issued " + statements + " statements for " + bookings.size() + " bookings");
+    }
+}
@@ -0,0 +1,102 @@
+package ru.practicum.shareit.cache;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@DirtiesContext
+public class SecondLevelCacheTest {
+    @Autowired
+    ItemRepository itemRepository;
+    @Autowired
+    ItemRequestRepository itemRequestRepository;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    UserService userService;
+    @Autowired
+    SecondLevelCacheEndpoint secondLevelCacheEndpoint;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    Statistics statistics;
+    User owner;
+    ItemRequest request;
+    Item item;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        String suffix = String.valueOf(System.nanoTime());
+        owner = userRepository.save(new User(null, "OwnerNameTest", "owner" + suffix + "@yamail.com"));
+        User requestor = userRepository.save(new User(null, "RequestorNameTest", "requestor" + suffix + "@yamail.com"));
+        request = itemRequestRepository.save(new ItemRequest(null, "RequestTest", requestor, LocalDateTime.now()));
+        item = itemRepository.save(new Item(null, "ItemTest", "ItemDescriptionTest", true, owner, request));
+    }
+
+    @Test
+    void findById_whenLoadedBefore_thenNoStatement() {
+        transactionTemplate.execute(status -> itemRepository.findById(item.getId()));
+        long statements = statistics.getPrepareStatementCount();
+
+        Item cached = transactionTemplate.execute(status -> itemRepository.findById(item.getId()).orElseThrow());
+
+        assertThat(cached.getName(), equalTo("ItemTest"));
+        assertThat(statistics.getPrepareStatementCount(), equalTo(statements));
+        Map<String, Map<String, Long>> regions = secondLevelCacheEndpoint.regions();
+        assertThat(regions, hasKey("items"));
+        assertThat(regions.get("items").get("hits"), greaterThan(0L));
+    }
+
+    @Test
+    void findById_whenUser_thenLeftToUserLookup() {
+        transactionTemplate.execute(status -> userRepository.findById(owner.getId()));
+
+        assertFalse(entityManagerFactory.getCache().contains(User.class, owner.getId()));
+    }
+
+    @Test
+    void findAllDtoByRequestIdIn_whenRepeated_thenQueryCacheHit() {
+        long hits = statistics.getQueryCacheHitCount();
+
+        transactionTemplate.execute(status -> itemRepository.findAllDtoByRequestIdIn(List.of(request.getId())));
+        List<ItemDto> items = transactionTemplate.execute(status -> itemRepository.findAllDtoByRequestIdIn(List.of(request.getId())));
+
+        assertThat(items, hasSize(1));
+        assertThat(statistics.getQueryCacheHitCount(), equalTo(hits + 1));
+    }
+
+    @Test
+    void deleteUserById_whenItemsCached_thenItemsGoneWithOwner() {
+        transactionTemplate.execute(status -> itemRepository.findById(item.getId()));
+
+        userService.deleteUserById(owner.getId());
+
+        assertFalse(transactionTemplate.execute(status -> itemRepository.findById(item.getId())).isPresent());
+    }
+}
@@ -0,0 +1,116 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingPointer;
+import ru.practicum.shareit.item.repository.ItemBookingPointerRepository;
+import ru.practicum.shareit.item.service.ItemBookingPointerServiceImp;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@Import(ItemBookingPointerServiceImp.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class ItemBookingPointerServiceTest {
+    @Autowired
+    TestEntityManager em;
+    @Autowired
+    ItemBookingPointerServiceImp itemBookingPointerService;
+    @Autowired
+    ItemBookingPointerRepository itemBookingPointerRepository;
+    User owner;
+    User booker;
+    Item item;
+    LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        owner = em.persist(new User(null, "OwnerNameTest", "OwnerTest@yamail.com"));
+        booker = em.persist(new User(null, "BookerNameTest", "BookerTest@yamail.com"));
+        item = em.persist(new Item(null, "ItemTest", "ItemDescriptionTest", true, owner, null));
+        now = LocalDateTime.now();
+    }
+
+    @Test
+    void getPointer_whenNotStoredYet_thenResolvedWithoutSaving() {
+        Booking last = em.persist(createBooking(now.minusDays(3), Status.APPROVED));
+        em.persist(createBooking(now.plusDays(1), Status.REJECTED));
+        Booking next = em.persist(createBooking(now.plusDays(2), Status.WAITING));
+
+        ItemBookingPointer pointer = itemBookingPointerService.getPointer(item.getId());
+
+        assertEquals(last.getId(), pointer.getLastBooking().getId());
+        assertEquals(next.getId(), pointer.getNextBooking().getId());
+        assertEquals(next.getStart(), pointer.getNextStart());
+        assertTrue(itemBookingPointerRepository.findById(item.getId()).isEmpty());
+    }
+
+    @Test
+    void getPointer_whenNextBookingStarted_thenResolvedWithoutUpdatingRow() {
+        Booking started = em.persist(createBooking(now.minusHours(1), Status.APPROVED));
+        em.persist(new ItemBookingPointer(item.getId(), null, started, started.getStart()));
+        em.flush();
+        em.clear();
+
+        ItemBookingPointer pointer = itemBookingPointerService.getPointer(item.getId());
+        em.flush();
+        em.clear();
+
+        assertEquals(started.getId(), pointer.getLastBooking().getId());
+        assertNull(pointer.getNextBooking());
+        assertEquals(started.getId(), itemBookingPointerRepository.findByItemId(item.getId()).get().getNextBooking().getId());
+    }
+
+    @Test
+    void refresh_whenBookingRejected_thenNextMovesOn() {
+        Booking first = em.persist(createBooking(now.plusDays(1), Status.WAITING));
+        Booking second = em.persist(createBooking(now.plusDays(2), Status.WAITING));
+        itemBookingPointerService.refresh(item.getId());
+
+        first.setStatus(Status.REJECTED);
+        itemBookingPointerService.refresh(item.getId());
+
+        ItemBookingPointer pointer = itemBookingPointerService.getPointer(item.getId());
+        assertNull(pointer.getLastBooking());
+        assertEquals(second.getId(), pointer.getNextBooking().getId());
+    }
+
+    @Test
+    void refreshDue_whenNextBookingStarted_thenItBecomesLast() {
+        Booking started = em.persist(createBooking(now.minusHours(1), Status.APPROVED));
+        em.persist(new ItemBookingPointer(item.getId(), null, started, started.getStart()));
+        em.flush();
+
+        itemBookingPointerService.refreshDue();
+        em.flush();
+        em.clear();
+
+        ItemBookingPointer pointer = itemBookingPointerRepository.findByItemId(item.getId()).get();
+        assertEquals(started.getId(), pointer.getLastBooking().getId());
+        assertNull(pointer.getNextBooking());
+        assertNull(pointer.getNextStart());
+    }
+
+    private Booking createBooking(LocalDateTime start, Status status) {
+        Booking booking = new Booking();
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStart(start);
+        booking.setEnd(start.plusHours(12));
+        booking.setStatus(status);
+        return booking;
+    }
+}
@@ -9,6 +9,7 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.IntervalDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoWithBookingsAndComments;
 import ru.practicum.shareit.item.service.ItemService;
@@ -143,6 +144,35 @@ public class ItemControllerTest {
         verify(itemService).searchItem("test", 0, 10);
     }
 
+    @Test
+    public void suggestItemNames() throws Exception {
+        when(itemService.suggestItemNames(anyString(), anyInt()))
+                .thenReturn(List.of("ItemTest", "ItemTestTwo"));
+        mvc.perform(get("/items/search/suggest")
+                        .param("prefix", "ite")
+                        .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0]", is("ItemTest")));
+        verify(itemService).suggestItemNames("ite", 5);
+    }
+
+    @Test
+    public void getAvailability() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(2);
+        when(itemService.getAvailability(anyLong(), any(), any()))
+                .thenReturn(List.of(new IntervalDto(from.plusDays(1), to)));
+        mvc.perform(get("/items/1/availability")
+                        .param("from", "2030-01-01T00:00:00")
+                        .param("to", "2030-01-03T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].start", is("2030-01-02T00:00:00")))
+                .andExpect(jsonPath("$[0].end", is("2030-01-03T00:00:00")));
+        verify(itemService).getAvailability(1L, from, to);
+    }
+
     @Test
     public void postComment() throws Exception {
         CommentDto commentDto = createTestComment();
@@ -8,6 +8,8 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
@@ -57,7 +59,17 @@ public class ItemRepositoryTest {
     public void search() {
         em.persist(user);
         em.persist(item);
-        List<Item> items = itemRepository.searchItem("TEST", PageRequest.of(0, 10));
+        List<ItemDto> items = itemRepository.searchItem("TEST", PageRequest.of(0, 10));
+        assertNotNull(items);
+        assertThat(items, hasSize(1));
+        assertThat(items, hasItem(ItemMapper.makeToDto(item)));
+    }
+
+    @Test
+    public void searchIndexed() {
+        em.persist(user);
+        em.persist(item);
+        List<Item> items = itemRepository.searchItemIndexed("tEsT", PageRequest.of(0, 10));
         assertNotNull(items);
         assertThat(items, hasSize(1));
         assertThat(items, hasItem(item));
@@ -0,0 +1,109 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+
+public class ItemSearchIndexTest {
+    ItemSearchIndex itemSearchIndex;
+    User owner;
+
+    @BeforeEach
+    void setUp() {
+        itemSearchIndex = new ItemSearchIndex();
+        owner = new User(1L, "UserNameTest", "userTest@yamail.com");
+        itemSearchIndex.put(createItem(3L, "Дрель", "Простая дрель", true));
+        itemSearchIndex.put(createItem(1L, "Drill", "Cordless drill", true));
+        itemSearchIndex.put(createItem(2L, "Hammer", "Heavy drill hammer", false));
+        itemSearchIndex.put(createItem(4L, "Saw", "Hand saw", true));
+    }
+
+    @Test
+    void search_whenTextInNameOrDescription_thenItemsInIdOrder() {
+        assertThat(ids(itemSearchIndex.search("dRiLl", 0, 10)), contains(1L));
+        assertThat(ids(itemSearchIndex.search("дрел", 0, 10)), contains(3L));
+        assertThat(ids(itemSearchIndex.search("a", 0, 10)), contains(2L, 4L));
+    }
+
+    @Test
+    void search_whenUnavailable_thenMatchedByNameOnly() {
+        assertThat(ids(itemSearchIndex.search("hammer", 0, 10)), contains(2L));
+        assertThat(ids(itemSearchIndex.search("heavy", 0, 10)), empty());
+    }
+
+    @Test
+    void search_whenPaged_thenSameOffsetAsPageRequest() {
+        itemSearchIndex.put(createItem(5L, "Saw blade", "Spare", true));
+        itemSearchIndex.put(createItem(6L, "Saw horse", "Wooden", true));
+        assertThat(ids(itemSearchIndex.search("saw", 0, 2)), contains(4L, 5L));
+        assertThat(ids(itemSearchIndex.search("saw", 2, 2)), contains(6L));
+        assertThat(ids(itemSearchIndex.search("saw", 3, 2)), contains(6L));
+    }
+
+    @Test
+    void searchRanked_whenNameMatch_thenAboveDescriptionMatch() {
+        itemSearchIndex.put(createItem(5L, "Power tool", "Drill with drill bits and a spare drill battery", true));
+        itemSearchIndex.put(createItem(6L, "Drill bits", "Set of ten", true));
+        assertThat(ids(itemSearchIndex.searchRanked("drill", 0, 10)), contains(1L, 6L, 5L));
+        assertThat(ids(itemSearchIndex.searchRanked("drill", 1, 1)), contains(6L));
+        assertThat(ids(itemSearchIndex.searchRanked("drill", 2, 2)), contains(5L));
+        assertThat(ids(itemSearchIndex.searchRanked("heavy", 0, 10)), empty());
+    }
+
+    @Test
+    void searchRanked_whenOffsetNearIntMax_thenEmptyPage() {
+        assertThat(ids(itemSearchIndex.searchRanked("drill", Integer.MAX_VALUE - 5, 10)), empty());
+    }
+
+    @Test
+    void put_whenItemUpdated_thenOldTextForgotten() {
+        itemSearchIndex.put(createItem(1L, "Screwdriver", "Electric", true));
+        assertThat(ids(itemSearchIndex.search("drill", 0, 10)), empty());
+        assertThat(ids(itemSearchIndex.search("screw", 0, 10)), contains(1L));
+    }
+
+    @Test
+    void remove_whenItemsDeleted_thenNotFound() {
+        itemSearchIndex.remove(4L);
+        assertThat(ids(itemSearchIndex.search("saw", 0, 10)), empty());
+        itemSearchIndex.removeAll(List.of(1L, 2L, 3L));
+        assertThat(ids(itemSearchIndex.search("a", 0, 10)), empty());
+    }
+
+    @Test
+    void replaceWith_whenChangedDuringRebuild_thenChangesKeptAndOldEntriesGone() {
+        itemSearchIndex.beginRebuild();
+        ItemSearchIndex rebuilt = new ItemSearchIndex();
+        rebuilt.put(createItem(1L, "Drill", "Cordless drill", true));
+        rebuilt.put(createItem(4L, "Saw", "Hand saw", true));
+        itemSearchIndex.put(createItem(1L, "Screwdriver", "Electric", true));
+        itemSearchIndex.remove(4L);
+        assertThat(ids(itemSearchIndex.search("a", 0, 10)), contains(2L));
+
+        itemSearchIndex.replaceWith(rebuilt);
+
+        assertThat(ids(itemSearchIndex.search("drill", 0, 10)), empty());
+        assertThat(ids(itemSearchIndex.search("screw", 0, 10)), contains(1L));
+        assertThat(ids(itemSearchIndex.search("saw", 0, 10)), empty());
+        assertThat(itemSearchIndex.size(), equalTo(1));
+    }
+
+    private List<Long> ids(List<ItemDto> items) {
+        return items.stream().map(ItemDto::getId).collect(Collectors.toList());
+    }
+
+    private Item createItem(Long id, String name, String description, boolean available) {
+        return new Item(id, name, description, available, owner, null);
+    }
+}
@@ -6,27 +6,38 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Pageable;
 import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
 import ru.practicum.shareit.booking.dto.BookingDtoShort;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.*;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.IntervalDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoWithBookingsAndComments;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingPointer;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.search.ItemSearchProperties;
+import ru.practicum.shareit.item.search.ItemSuggestIndex;
+import ru.practicum.shareit.item.search.SearchMode;
+import ru.practicum.shareit.item.service.ItemBookingPointerService;
 import ru.practicum.shareit.item.service.ItemServiceImp;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserLookup;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -49,13 +60,21 @@ public class ItemServiceTest {
     @Mock
     ItemRepository itemRepository;
     @Mock
-    UserRepository userRepository;
+    UserLookup userLookup;
     @Mock
     CommentRepository commentRepository;
     @Mock
     BookingRepository bookingRepository;
     @Mock
     ItemRequestRepository itemRequestRepository;
+    @Mock
+    ItemSearchIndex itemSearchIndex;
+    @Spy
+    ItemSearchProperties itemSearchProperties = new ItemSearchProperties();
+    @Mock
+    ItemSuggestIndex itemSuggestIndex;
+    @Mock
+    ItemBookingPointerService itemBookingPointerService;
 
     Item item;
     ItemDto itemDto;
@@ -80,8 +99,8 @@ public class ItemServiceTest {
 
     @Test
     void createItem_whenCreateItem_thenSaveItem() {
-        when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(new User(1L, "UserNameTest", "userTest@yamail.com")));
+        when(userLookup.getUser(anyLong()))
+                .thenReturn(new User(1L, "UserNameTest", "userTest@yamail.com"));
         when(itemRepository.save(any(Item.class)))
                 .thenReturn(new Item(1L, "ItemTest", "ItemDescriptionTest", true,
                         new User(1L, "UserNameTest", "userTest@yamail.com"), null));
@@ -100,8 +119,8 @@ public class ItemServiceTest {
 
     @Test
     void createItem_whenUserNotFound_thenUserNotFoundException() {
-        when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.empty());
+        when(userLookup.getUser(anyLong()))
+                .thenThrow(new UserNotFoundException("User ID: " + 1L + " not found"));
         UserNotFoundException exception = assertThrows(UserNotFoundException.class,
                 () -> itemService.createItem(itemDto, 1L));
         assertThat(exception.getMessage(), equalTo("User ID: " + 1L + " not found"));
@@ -109,8 +128,8 @@ public class ItemServiceTest {
 
     @Test
     void createItem_whenRequestNotFound_thenRequestNotFoundException() {
-        when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(new User(1L, "UserNameTest", "userTest@yamail.com")));
+        when(userLookup.getUser(anyLong()))
+                .thenReturn(new User(1L, "UserNameTest", "userTest@yamail.com"));
         when(itemRequestRepository.findById(anyLong()))
                 .thenReturn(Optional.empty());
         itemDto.setRequestId(2L);
@@ -122,8 +141,8 @@ public class ItemServiceTest {
     @Test
     void createItem_whenRequestNotNull_thenSaveItem() {
         itemDto.setRequestId(1L);
-        when(userRepository.findById(anyLong()))
-                .thenReturn(Optional.of(new User(1L, "UserNameTest", "userTest@yamail.com")));
+        when(userLookup.getUser(anyLong()))
+                .thenReturn(new User(1L, "UserNameTest", "userTest@yamail.com"));
         when(itemRequestRepository.findById(anyLong()))
                 .thenReturn(Optional.of(itemRequest));
         when(itemRepository.save(any(Item.class)))
@@ -146,13 +165,30 @@ public class ItemServiceTest {
     void getItemById_whenItemId_thenItem() {
         when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
         when(commentRepository.findAllByItemId(anyLong())).thenReturn(new ArrayList<>());
-        when(bookingRepository.findAllByItemId(anyLong())).thenReturn(new ArrayList<>());
+        when(itemBookingPointerService.getPointer(anyLong())).thenReturn(new ItemBookingPointer(1L, null, null, null));
 
         ItemDtoWithBookingsAndComments result = itemService.getItemById(1L, 1L);
 
         assertThat(result, equalTo(createItemDtoWithBookingsAndComments()));
     }
 
+    @Test
+    void getItemById_whenOwnerAndPointers_thenLastAndNextFromPointers() {
+        Booking next = createBooking();
+        next.setId(2L);
+        next.setStart(LocalDateTime.now().plusDays(1));
+        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
+        when(commentRepository.findAllByItemId(anyLong())).thenReturn(new ArrayList<>());
+        when(itemBookingPointerService.getPointer(1L))
+                .thenReturn(new ItemBookingPointer(1L, booking, next, next.getStart()));
+
+        ItemDtoWithBookingsAndComments result = itemService.getItemById(1L, 1L);
+
+        assertEquals(result.getLastBooking().getId(), 1L);
+        assertEquals(result.getNextBooking().getId(), 2L);
+        verify(bookingRepository, never()).findLastAndNextByItemIdIn(anyList(), any());
+    }
+
     @Test
     void getItemById_whenItemNotFound_thenItemNotFoundException() {
         when(itemRepository.findById(anyLong())).thenReturn(Optional.empty());
@@ -165,10 +201,10 @@ public class ItemServiceTest {
     void getItemById_whenNotOwner_thenItem() {
         when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
         when(commentRepository.findAllByItemId(anyLong())).thenReturn(new ArrayList<>());
-        when(bookingRepository.findAllByItemId(anyLong())).thenReturn(new ArrayList<>());
 
         ItemDtoWithBookingsAndComments result = itemService.getItemById(1L, 2L);
         assertThat(result, equalTo(createItemDtoWithBookingsAndComments()));
+        verifyNoInteractions(itemBookingPointerService);
     }
 
     @Test
@@ -177,7 +213,7 @@ public class ItemServiceTest {
         items.add(new Item(1L, "ItemTest", "ItemDescriptionTest", true,
                 new User(1L, "UserNameTest", "userTest@yamail.com"), null));
         doReturn(items).when(itemRepository).findAllByOwnerId(anyLong(), any(Pageable.class));
-        doReturn(new ArrayList<>()).when(bookingRepository).findAllByItemIdIn(Mockito.anyList());
+        doReturn(new ArrayList<>()).when(bookingRepository).findLastAndNextByItemIdIn(Mockito.anyList(), any(LocalDateTime.class));
         doReturn(List.of(commentOne)).when(commentRepository).findAllByItemIdIn(Mockito.anyList());
 
         List<ItemDtoWithBookingsAndComments> result = itemService.getAllItemsOfUser(1L, 0, 10);
@@ -191,7 +227,7 @@ public class ItemServiceTest {
         items.add(new Item(1L, "ItemTest", "ItemDescriptionTest", true,
                 new User(1L, "UserNameTest", "userTest@yamail.com"), null));
         doReturn(items).when(itemRepository).findAllByOwnerId(anyLong(), any(Pageable.class));
-        doReturn(new ArrayList<>()).when(bookingRepository).findAllByItemIdIn(Mockito.anyList());
+        doReturn(new ArrayList<>()).when(bookingRepository).findLastAndNextByItemIdIn(Mockito.anyList(), any(LocalDateTime.class));
         doReturn(new ArrayList<>()).when(commentRepository).findAllByItemIdIn(Mockito.anyList());
 
         List<ItemDtoWithBookingsAndComments> result = itemService.getAllItemsOfUser(1L, 0, 10);
@@ -199,10 +235,44 @@ public class ItemServiceTest {
 
     }
 
+    @Test
+    public void getAllItemsOfUser_whenBookingsOfSeveralItems_thenEachItemGetsItsOwn() {
+        Item itemTwo = new Item(2L, "ItemTestTwo", "ItemDescriptionTestTwo", true,
+                new User(1L, "UserNameTest", "userTest@yamail.com"), null);
+        Booking last = createBooking();
+        last.setStart(LocalDateTime.now().minusDays(2));
+        last.setEnd(LocalDateTime.now().minusDays(1));
+        Booking next = createBooking();
+        next.setId(2L);
+        next.setItem(itemTwo);
+        next.setStart(LocalDateTime.now().plusDays(1));
+        next.setEnd(LocalDateTime.now().plusDays(2));
+        doReturn(List.of(itemTwo, item)).when(itemRepository).findAllByOwnerId(anyLong(), any(Pageable.class));
+        doReturn(List.of(last, next)).when(bookingRepository).findLastAndNextByItemIdIn(Mockito.anyList(), any(LocalDateTime.class));
+        doReturn(List.of(commentOne)).when(commentRepository).findAllByItemIdIn(Mockito.anyList());
+
+        List<ItemDtoWithBookingsAndComments> result = itemService.getAllItemsOfUser(1L, 0, 10);
+        assertEquals(result.get(0).getId(), 1L);
+        assertEquals(result.get(0).getLastBooking().getId(), 1L);
+        assertNull(result.get(0).getNextBooking());
+        assertEquals(result.get(0).getComments().size(), 1);
+        assertNull(result.get(1).getLastBooking());
+        assertEquals(result.get(1).getNextBooking().getId(), 2L);
+        assertTrue(result.get(1).getComments().isEmpty());
+    }
+
+    @Test
+    public void getAllItemsOfUser_whenNoItems_thenEmptyListWithoutBookingQuery() {
+        doReturn(new ArrayList<>()).when(itemRepository).findAllByOwnerId(anyLong(), any(Pageable.class));
+
+        assertTrue(itemService.getAllItemsOfUser(1L, 0, 10).isEmpty());
+        verifyNoInteractions(bookingRepository, commentRepository);
+    }
+
     @Test
     void update_whenUpdateItem_thenSaveItem() {
-        doReturn(Optional.of(new User(1L, "UserNameTest", "userTest@yamail.com")))
-                .when(userRepository).findById(anyLong());
+        doReturn(new User(1L, "UserNameTest", "userTest@yamail.com"))
+                .when(userLookup).getUser(anyLong());
         doReturn(new Item(1L, "ItemTest", "NEW ItemDescriptionTest", true,
                 new User(1L, "UserNameTest", "userTest@yamail.com"), null))
                 .when(itemRepository).save(any(Item.class));
@@ -232,8 +302,8 @@ public class ItemServiceTest {
 
     @Test
     void update_whenUpdateItem_thenNotCorrectDataException() {
-        doReturn(Optional.of(new User(2L, "UserNameTest", "userTest@yamail.com")))
-                .when(userRepository).findById(anyLong());
+        doReturn(new User(2L, "UserNameTest", "userTest@yamail.com"))
+                .when(userLookup).getUser(anyLong());
         doReturn(true).when(itemRepository).existsById(anyLong());
         doReturn(Optional.of(new Item(1L, "ItemTest", "ItemDescriptionTest", true,
                 new User(1L, "UserNameTest", "userTest@yamail.com"), null)))
@@ -271,9 +341,44 @@ public class ItemServiceTest {
 
         verify(itemRepository).existsById(1L);
         verify(itemRepository).deleteById(1L);
+        verify(itemSearchIndex).remove(1L);
+        verify(itemSuggestIndex).remove(1L);
         verifyNoMoreInteractions(itemRepository);
     }
 
+    @Test
+    void deleteItemById_whenInTransaction_thenIndexesUpdatedOnlyAfterCommit() {
+        when(itemRepository.existsById(anyLong())).thenReturn(Boolean.TRUE);
+        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            itemService.deleteItemById(1L, 1L);
+            verifyNoInteractions(itemSearchIndex, itemSuggestIndex);
+
+            TransactionSynchronizationUtils.triggerAfterCommit();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        verify(itemSearchIndex).remove(1L);
+        verify(itemSuggestIndex).remove(1L);
+    }
+
+    @Test
+    void createItem_whenRolledBack_thenNotIndexed() {
+        when(userLookup.getUser(anyLong())).thenReturn(user);
+        when(itemRepository.save(any())).thenReturn(item);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            itemService.createItem(itemDto, 1L);
+
+            TransactionSynchronizationUtils.invokeAfterCompletion(
+                    TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        verifyNoInteractions(itemSearchIndex, itemSuggestIndex);
+    }
+
     @Test
     void deleteItemById_whenItemNotFound_thenItemNotFoundException() {
         when(itemRepository.existsById(anyLong())).thenReturn(Boolean.FALSE);
@@ -285,12 +390,55 @@ public class ItemServiceTest {
     }
 
     @Test
-    void searchItem_whenText_thenItemList() {
+    void searchItem_whenMemoryMode_thenItemListFromIndex() {
+        itemSearchProperties.setMode(SearchMode.MEMORY);
+        when(itemSearchIndex.search(anyString(), anyInt(), anyInt()))
+                .thenReturn(List.of(ItemMapper.makeToDto(item)));
+        List<ItemDto> items = itemService.searchItem("TeSt", 0, 10);
+        assertFalse(items.isEmpty());
+        assertEquals(items.get(0).getId(), 1L);
+        verifyNoInteractions(itemRepository);
+    }
+
+    @Test
+    void searchItem_whenLikeMode_thenItemListFromRepository() {
+        itemSearchProperties.setMode(SearchMode.LIKE);
         when(itemRepository.searchItem(anyString(), any(Pageable.class)))
+                .thenReturn(List.of(ItemMapper.makeToDto(item)));
+        List<ItemDto> items = itemService.searchItem("TeSt", 0, 10);
+        assertEquals(items.get(0).getId(), 1L);
+        verifyNoInteractions(itemSearchIndex);
+    }
+
+    @Test
+    void searchItem_whenTrigramMode_thenItemListFromIndexedQuery() {
+        itemSearchProperties.setMode(SearchMode.TRIGRAM);
+        when(itemRepository.searchItemIndexed(anyString(), any(Pageable.class)))
                 .thenReturn(List.of(item));
         List<ItemDto> items = itemService.searchItem("TeSt", 0, 10);
-        assertFalse(items.isEmpty());
         assertEquals(items.get(0).getId(), 1L);
+        verifyNoInteractions(itemSearchIndex);
+    }
+
+    @Test
+    void searchItem_whenRankedMode_thenRankedItemList() {
+        itemSearchProperties.setMode(SearchMode.RANKED);
+        when(itemSearchIndex.searchRanked(anyString(), anyInt(), anyInt()))
+                .thenReturn(List.of(ItemMapper.makeToDto(item)));
+        List<ItemDto> items = itemService.searchItem("TeSt", 0, 10);
+        assertEquals(items.get(0).getId(), 1L);
+        verifyNoInteractions(itemRepository);
+    }
+
+    @Test
+    void searchItem_whenRankedBeyondMaxDepth_thenIllegalOperationException() {
+        itemSearchProperties.setMode(SearchMode.RANKED);
+        itemSearchProperties.setRankedMaxDepth(100);
+
+        IllegalOperationException exception = assertThrows(IllegalOperationException.class,
+                () -> itemService.searchItem("TeSt", 95, 10));
+        assertThat(exception.getMessage(), equalTo("Ranked search is limited to the first 100 results"));
+        verifyNoInteractions(itemSearchIndex);
     }
 
     @Test
@@ -299,9 +447,67 @@ public class ItemServiceTest {
         assertTrue(items.isEmpty());
     }
 
+    @Test
+    void getAvailability_whenBookingsOverlapAndTouch_thenGapsBetweenMerged() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(10);
+        Booking first = createBooking();
+        first.setStart(from.minusDays(1));
+        first.setEnd(from.plusDays(2));
+        Booking second = createBooking();
+        second.setStart(from.plusDays(1));
+        second.setEnd(from.plusDays(3));
+        Booking third = createBooking();
+        third.setStart(from.plusDays(5));
+        third.setEnd(from.plusDays(6));
+        Booking fourth = createBooking();
+        fourth.setStart(from.plusDays(6));
+        fourth.setEnd(from.plusDays(7));
+        when(itemRepository.existsById(1L)).thenReturn(true);
+        when(bookingRepository.findAllByItemIdAndStatusNotAndStartBeforeAndEndAfterOrderByStartAsc(1L, Status.REJECTED, to, from))
+                .thenReturn(List.of(first, second, third, fourth));
+
+        List<IntervalDto> result = itemService.getAvailability(1L, from, to);
+
+        assertEquals(List.of(new IntervalDto(from.plusDays(3), from.plusDays(5)),
+                new IntervalDto(from.plusDays(7), to)), result);
+    }
+
+    @Test
+    void getAvailability_whenNoBookings_thenWholeWindow() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        when(itemRepository.existsById(1L)).thenReturn(true);
+
+        List<IntervalDto> result = itemService.getAvailability(1L, from, from.plusDays(1));
+
+        assertEquals(List.of(new IntervalDto(from, from.plusDays(1))), result);
+    }
+
+    @Test
+    void getAvailability_whenFromNotBeforeTo_thenIllegalOperationException() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        assertThrows(IllegalOperationException.class, () -> itemService.getAvailability(1L, from, from));
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void suggestItemNames_whenSizeAboveLimit_thenLimitApplied() {
+        when(itemSuggestIndex.suggest(anyString(), anyInt()))
+                .thenReturn(List.of("ItemTest"));
+        List<String> names = itemService.suggestItemNames("ite", 1000);
+        assertThat(names, equalTo(List.of("ItemTest")));
+        verify(itemSuggestIndex).suggest("ite", itemSearchProperties.getSuggest().getMaxResults());
+    }
+
+    @Test
+    void suggestItemNames_whenPrefixIsEmpty_thenEmptyList() {
+        assertTrue(itemService.suggestItemNames(" ", 10).isEmpty());
+        verifyNoInteractions(itemSuggestIndex);
+    }
+
     @Test
     void postComment_whenComment_thenSaveComment() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(userLookup.getUser(anyLong())).thenReturn(user);
         when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
         when(bookingRepository.findByItemIdAndBookerIdAndStatusAndEndBefore(anyLong(), anyLong(), any(Status.class), any(LocalDateTime.class)))
                 .thenReturn(List.of(booking));
@@ -314,7 +520,7 @@ public class ItemServiceTest {
 
     @Test
     void postComment_whenUnavailableComment_thenIllegalOperationException() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(userLookup.getUser(anyLong())).thenReturn(user);
         when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
         when(bookingRepository.findByItemIdAndBookerIdAndStatusAndEndBefore(anyLong(), anyLong(), any(Status.class), any(LocalDateTime.class)))
                 .thenReturn(new ArrayList<>());
@@ -0,0 +1,77 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchProperties;
+import ru.practicum.shareit.item.search.ItemSuggestIndex;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+
+public class ItemSuggestIndexTest {
+    ItemSuggestIndex itemSuggestIndex;
+    User owner;
+
+    @BeforeEach
+    void setUp() {
+        ItemSearchProperties properties = new ItemSearchProperties();
+        properties.getSuggest().setMaxNames(4);
+        itemSuggestIndex = new ItemSuggestIndex(properties);
+        owner = new User(1L, "UserNameTest", "userTest@yamail.com");
+        itemSuggestIndex.put(createItem(1L, "Drill", true));
+        itemSuggestIndex.put(createItem(2L, "drill", true));
+        itemSuggestIndex.put(createItem(3L, "Drill press", true));
+        itemSuggestIndex.put(createItem(4L, "Dress", true));
+        itemSuggestIndex.put(createItem(5L, "Drone", false));
+    }
+
+    @Test
+    void suggest_whenPrefix_thenAvailableNamesByItemCount() {
+        assertThat(itemSuggestIndex.suggest("dr", 10), contains("Drill", "Dress", "Drill press"));
+        assertThat(itemSuggestIndex.suggest("DRI", 1), contains("Drill"));
+        assertThat(itemSuggestIndex.suggest("x", 10), empty());
+    }
+
+    @Test
+    void suggest_whenLimitBelowMatches_thenMostCommonNamesKept() {
+        itemSuggestIndex.put(createItem(6L, "Drum", true));
+        itemSuggestIndex.put(createItem(7L, "drum", true));
+        itemSuggestIndex.put(createItem(8L, "DRUM", true));
+        assertThat(itemSuggestIndex.suggest("d", 2), contains("Drum", "Drill"));
+        itemSuggestIndex.remove(6L);
+        itemSuggestIndex.remove(7L);
+        assertThat(itemSuggestIndex.suggest("d", 2), contains("Drill", "Dress"));
+    }
+
+    @Test
+    void remove_whenLastItemWithName_thenNameForgotten() {
+        itemSuggestIndex.remove(1L);
+        assertThat(itemSuggestIndex.suggest("drill", 10), contains("Drill", "Drill press"));
+        itemSuggestIndex.remove(2L);
+        assertThat(itemSuggestIndex.suggest("drill", 10), contains("Drill press"));
+    }
+
+    @Test
+    void put_whenItemBecomesUnavailable_thenNameForgotten() {
+        itemSuggestIndex.put(createItem(4L, "Dress", false));
+        assertThat(itemSuggestIndex.suggest("dre", 10), empty());
+    }
+
+    @Test
+    void put_whenLimitReached_thenNewNamesSkipped() {
+        itemSuggestIndex.put(createItem(6L, "Drum", true));
+        itemSuggestIndex.put(createItem(7L, "Dryer", true));
+        assertThat(itemSuggestIndex.suggest("dr", 10), contains("Drill", "Dress", "Drill press", "Drum"));
+        itemSuggestIndex.removeAll(List.of(1L, 2L, 3L, 4L, 6L, 7L));
+        assertThat(itemSuggestIndex.suggest("d", 10), empty());
+    }
+
+    private Item createItem(Long id, String name, boolean available) {
+        return new Item(id, name, "Description", available, owner, null);
+    }
+}
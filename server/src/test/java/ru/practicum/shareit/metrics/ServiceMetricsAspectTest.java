@@ -0,0 +1,94 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.IllegalOperationException;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ServiceMetricsAspectTest {
+    @Mock
+    private BookingService bookingService;
+    @Mock
+    private UserService userService;
+
+    private MeterRegistry meterRegistry;
+    private BookingService bookings;
+    private UserService users;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        bookings = proxy(bookingService);
+        users = proxy(userService);
+    }
+
+    @Test
+    void getAllBookingsByOwnerId_whenKnownState_thenTimedAndSizeRecordedByState() {
+        when(bookingService.getAllBookingsByOwnerId(1L, "CURRENT", 0, 10))
+                .thenReturn(List.of(new BookingDto(), new BookingDto()));
+
+        bookings.getAllBookingsByOwnerId(1L, "CURRENT", 0, 10);
+
+        Timer timer = meterRegistry.find(ServiceMetricsAspect.TIMER)
+                .tags("service", "BookingService", "operation", "getAllBookingsByOwnerId",
+                        "state", "CURRENT", "outcome", "success", "exception", "none")
+                .timer();
+        assertThat(timer.count(), equalTo(1L));
+        assertThat(meterRegistry.find(ServiceMetricsAspect.RESULT_SIZE).tag("state", "CURRENT")
+                .summary().totalAmount(), equalTo(2.0));
+    }
+
+    @Test
+    void getAllBookingsByUserId_whenUnknownState_thenErrorTaggedWithoutRawState() {
+        when(bookingService.getAllBookingsByUserId(1L, "DROP TABLE", 0, 10))
+                .thenThrow(new IllegalOperationException("Unknown state: DROP TABLE"));
+
+        assertThrows(IllegalOperationException.class, () -> bookings.getAllBookingsByUserId(1L, "DROP TABLE", 0, 10));
+
+        Timer timer = meterRegistry.find(ServiceMetricsAspect.TIMER)
+                .tags("operation", "getAllBookingsByUserId", "state", "UNKNOWN",
+                        "outcome", "error", "exception", "IllegalOperationException")
+                .timer();
+        assertThat(timer.count(), equalTo(1L));
+        assertThat(meterRegistry.find(ServiceMetricsAspect.RESULT_SIZE).summary(), nullValue());
+    }
+
+    @Test
+    void getUserById_whenSingleResult_thenTimedWithoutStateAndSize() {
+        when(userService.getUserById(1L)).thenReturn(new UserDto());
+
+        users.getUserById(1L);
+
+        Timer timer = meterRegistry.find(ServiceMetricsAspect.TIMER)
+                .tags("service", "UserService", "operation", "getUserById", "state", "none")
+                .timer();
+        assertThat(timer.count(), equalTo(1L));
+        assertThat(meterRegistry.find(ServiceMetricsAspect.RESULT_SIZE).summary(), nullValue());
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T proxy(T target) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.addAspect(new ServiceMetricsAspect(meterRegistry));
+        return (T) factory.getProxy();
+    }
+}
@@ -0,0 +1,107 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Reads the statement count of a request from the {@code X-Sql-Statements} header, the way an N+1
+ * check against a running server would: more rows on the page must not mean more statements.
+ */
+@SpringBootTest(properties = "shareit.sql-stats.headers=true")
+@AutoConfigureMockMvc
+@DirtiesContext
+public class SqlStatisticsFilterTest {
+    @Autowired
+    MockMvc mvc;
+    @Autowired
+    MeterRegistry meterRegistry;
+    @Autowired
+    BookingRepository bookingRepository;
+    @Autowired
+    ItemRepository itemRepository;
+    @Autowired
+    UserRepository userRepository;
+
+    User owner;
+    User booker;
+    LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = String.valueOf(System.nanoTime());
+        owner = userRepository.save(new User(null, "OwnerNameTest", "owner" + suffix + "@yamail.com"));
+        booker = userRepository.save(new User(null, "BookerNameTest", "booker" + suffix + "@yamail.com"));
+        now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    @Test
+    void ownerBookings_whenMoreBookings_thenSameNumberOfStatements() throws Exception {
+        addBookings(0, 1);
+        // the first request also loads the owner into the user cache
+        ownerBookingStatements();
+        int one = ownerBookingStatements();
+        addBookings(1, 5);
+        int six = ownerBookingStatements();
+
+        assertThat(one, greaterThan(0));
+        assertThat(six, equalTo(one));
+    }
+
+    @Test
+    void ownerBookings_whenServed_thenRecordedByUriPattern() throws Exception {
+        addBookings(0, 2);
+        ownerBookingStatements();
+
+        DistributionSummary statements = meterRegistry.find(SqlStatisticsFilter.STATEMENTS)
+                .tags("method", "GET", "uri", "/bookings/owner")
+                .summary();
+        assertThat(statements.count(), greaterThan(0L));
+        assertThat(meterRegistry.find(SqlStatisticsFilter.TIME).tags("uri", "/bookings/owner").timer().count(),
+                equalTo(statements.count()));
+    }
+
+    private int ownerBookingStatements() throws Exception {
+        String statements = mvc.perform(get("/bookings/owner")
+                        .header("X-Sharer-User-Id", owner.getId())
+                        .param("state", "ALL")
+                        .param("size", "20"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(SqlStatisticsFilter.TIME_HEADER))
+                .andReturn()
+                .getResponse()
+                .getHeader(SqlStatisticsFilter.STATEMENTS_HEADER);
+        return Integer.parseInt(statements);
+    }
+
+    private void addBookings(int from, int count) {
+        for (int i = from; i < from + count; i++) {
+            Item item = itemRepository.save(new Item(null, "ItemTest" + i, "ItemDescriptionTest", true, owner, null));
+            LocalDateTime start = now.plusDays(2L * i + 1);
+            bookingRepository.save(new Booking(null, item, booker, start, start.plusDays(1), Status.APPROVED));
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package ru.practicum.shareit.user;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+
+/**
+ * Deleting a user removes their requests and, through them, the items of other owners
+ * answering those requests (ON DELETE CASCADE). The in-memory indexes must forget those items too.
+ * Their bookings go the same way, and the booking pointers of the booked items must move on.
+ */
+@SpringBootTest(properties = "shareit.search.mode=memory")
+@DirtiesContext
+public class UserDeletionTest {
+    @Autowired
+    UserService userService;
+    @Autowired
+    ItemService itemService;
+    @Autowired
+    BookingService bookingService;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    ItemRequestRepository itemRequestRepository;
+
+    User owner;
+    User requestor;
+    ItemDto answer;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = String.valueOf(System.nanoTime());
+        owner = userRepository.save(new User(null, "OwnerNameTest", "owner" + suffix + "@yamail.com"));
+        requestor = userRepository.save(new User(null, "RequestorNameTest", "requestor" + suffix + "@yamail.com"));
+        ItemRequest request = itemRequestRepository.save(new ItemRequest(null, "RequestTest", requestor, LocalDateTime.now()));
+        answer = itemService.createItem(new ItemDto(null, "Cascade drill " + suffix, "Answers the request", true,
+                request.getId()), owner.getId());
+    }
+
+    @Test
+    void deleteUserById_whenRequestor_thenAnsweringItemNotFound() {
+        assertThat(ids(itemService.searchItem(answer.getName(), 0, 10)), contains(answer.getId()));
+        assertThat(itemService.suggestItemNames(answer.getName(), 10), contains(answer.getName()));
+
+        userService.deleteUserById(requestor.getId());
+
+        assertThat(itemService.searchItem(answer.getName(), 0, 10), empty());
+        assertThat(itemService.suggestItemNames(answer.getName(), 10), empty());
+    }
+
+    @Test
+    void deleteUserById_whenNextBooker_thenItemNextBookingMovesOn() {
+        User booker = userRepository.save(new User(null, "BookerNameTest", "booker" + System.nanoTime() + "@yamail.com"));
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        BookingDto deleted = bookingService.createBooking(BookingDto.builder()
+                .itemId(answer.getId()).start(start).end(start.plusDays(1)).build(), booker.getId());
+        BookingDto later = bookingService.createBooking(BookingDto.builder()
+                .itemId(answer.getId()).start(start.plusDays(2)).end(start.plusDays(3)).build(), requestor.getId());
+        assertThat(itemService.getItemById(answer.getId(), owner.getId()).getNextBooking().getId(),
+                equalTo(deleted.getId()));
+
+        userService.deleteUserById(booker.getId());
+
+        assertThat(itemService.getItemById(answer.getId(), owner.getId()).getNextBooking().getId(),
+                equalTo(later.getId()));
+    }
+
+    private List<Long> ids(List<ItemDto> items) {
+        return items.stream().map(ItemDto::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,77 @@
+package ru.practicum.shareit.user;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.exception.UserNotFoundException;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserLookup;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class UserLookupTest {
+    @Mock
+    private UserRepository userRepository;
+
+    private MeterRegistry meterRegistry;
+    private UserLookup userLookup;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        userLookup = new UserLookup(userRepository, meterRegistry, 100, Duration.ofMinutes(5));
+        user = new User(1L, "UserNameTest", "userTest@yamail.com");
+    }
+
+    @Test
+    void getUser_whenCalledTwice_thenOneQueryAndHitCounted() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        assertThat(userLookup.getUser(1L), equalTo(user));
+        assertTrue(userLookup.exists(1L));
+
+        verify(userRepository, times(1)).findById(1L);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "users").tag("result", "hit")
+                .functionCounter().count(), equalTo(1.0));
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "users").tag("result", "miss")
+                .functionCounter().count(), equalTo(1.0));
+    }
+
+    @Test
+    void getUser_whenInvalidated_thenReloaded() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user),
+                Optional.of(new User(1L, "UpdatedUserNameTest", "userTest@yamail.com")));
+
+        userLookup.getUser(1L);
+        userLookup.invalidate(1L);
+
+        assertThat(userLookup.getUser(1L).getName(), equalTo("UpdatedUserNameTest"));
+    }
+
+    @Test
+    void getUser_whenUserNotFound_thenNotCachedAndUserNotFoundException() {
+        when(userRepository.findById(2L)).thenReturn(Optional.empty());
+
+        assertFalse(userLookup.exists(2L));
+        UserNotFoundException exception = assertThrows(UserNotFoundException.class,
+                () -> userLookup.getUser(2L));
+
+        assertThat(exception.getMessage(), equalTo("User ID: " + 2L + " not found"));
+        verify(userRepository, times(2)).findById(2L);
+    }
+}
@@ -7,12 +7,18 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.cache.SecondLevelCache;
 import ru.practicum.shareit.exception.DuplicateException;
 import ru.practicum.shareit.exception.UserNotFoundException;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.search.ItemSuggestIndex;
+import ru.practicum.shareit.item.service.ItemBookingPointerService;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserLookup;
 import ru.practicum.shareit.user.service.UserServiceImp;
 
 import java.util.List;
@@ -29,6 +35,18 @@ public class UserServiceImpTest {
     private UserServiceImp userService;
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private ItemRepository itemRepository;
+    @Mock
+    private ItemSearchIndex itemSearchIndex;
+    @Mock
+    private ItemSuggestIndex itemSuggestIndex;
+    @Mock
+    private ItemBookingPointerService itemBookingPointerService;
+    @Mock
+    private UserLookup userLookup;
+    @Mock
+    private SecondLevelCache secondLevelCache;
 
     User user;
     UserDto userDto;
@@ -61,14 +79,14 @@ public class UserServiceImpTest {
 
     @Test
     void getUserByIdTest() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(userLookup.getUser(anyLong())).thenReturn(user);
         UserDto returnResult = userService.getUserById(1L);
         assertThat(returnResult, equalTo(UserMapper.makeUserDto(user)));
     }
 
     @Test
     void getUserByIdTest_whenUserNotFound_thenUserNotFoundException() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(userLookup.getUser(anyLong())).thenThrow(new UserNotFoundException("User ID: " + 1L + " not found"));
         UserNotFoundException exception = assertThrows(UserNotFoundException.class,
                 () -> userService.getUserById(1L));
         assertThat(exception.getMessage(), equalTo("User ID: " + 1L + " not found"));
@@ -111,6 +129,7 @@ public class UserServiceImpTest {
         UserDto returnResult = userService.update(1L, updatedUser);
         assertThat(returnResult, equalTo(new UserDto(1L, "UserNameTest", "UpdatedUserTest@yamail.com")));
         verify(userRepository).save(new User(1L, "UserNameTest", "UpdatedUserTest@yamail.com"));
+        verify(userLookup).invalidate(1L);
     }
 
     @Test
@@ -132,9 +151,16 @@ public class UserServiceImpTest {
     @Test
     void deleteUserById_whenUserIdIsPresent_thenDeleteUser() {
         when(userRepository.existsById(anyLong())).thenReturn(Boolean.TRUE);
+        when(itemRepository.findIdsByOwnerIdOrRequestorId(anyLong())).thenReturn(List.of(1L, 2L));
+        when(itemBookingPointerService.getItemIdsBookedBy(anyLong())).thenReturn(List.of(3L));
         doNothing().when(userRepository).deleteById(anyLong());
         userService.deleteUserById(user.getId());
         verify(userRepository).deleteById(user.getId());
+        verify(itemSearchIndex).removeAll(List.of(1L, 2L));
+        verify(itemSuggestIndex).removeAll(List.of(1L, 2L));
+        verify(itemBookingPointerService).refreshAll(List.of(3L));
+        verify(userLookup).invalidate(user.getId());
+        verify(secondLevelCache).evictUserData();
     }
 
     @Test